@@ -0,0 +1,39 @@
+package org.commonmark.ext.autolink;
+
+import org.commonmark.Extension;
+import org.commonmark.parser.Parser;
+import org.commonmark.renderer.html.HtmlRenderer;
+import org.commonmark.testutil.ScalingTestCase;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+public class AutolinkScalingTest extends ScalingTestCase {
+
+    private static final Set<Extension> EXTENSIONS = Set.of(AutolinkExtension.create());
+
+    public AutolinkScalingTest() {
+        super(Parser.builder().extensions(EXTENSIONS).build()::parse,
+                HtmlRenderer.builder().extensions(EXTENSIONS).build()::render);
+    }
+
+    @Test
+    public void urls() {
+        assertLinearScaling(n -> "http://example.com/a www.example.com ".repeat(n));
+    }
+
+    @Test
+    public void emails() {
+        assertLinearScaling(n -> "a@example.com foo@ @bar.com ".repeat(n));
+    }
+
+    @Test
+    public void unfinishedUrls() {
+        assertLinearScaling(n -> "http:// www. a.b@".repeat(n));
+    }
+
+    @Test
+    public void longUrl() {
+        assertLinearScaling(n -> "www.example.com/" + "a(b)".repeat(n));
+    }
+}
@@ -0,0 +1,38 @@
+package org.commonmark.ext.footnotes;
+
+import org.commonmark.Extension;
+import org.commonmark.parser.Parser;
+import org.commonmark.renderer.html.HtmlRenderer;
+import org.commonmark.testutil.ScalingTestCase;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class FootnotesScalingTest extends ScalingTestCase {
+
+    private static final Set<Extension> EXTENSIONS = Set.of(FootnotesExtension.create());
+
+    public FootnotesScalingTest() {
+        super(Parser.builder().extensions(EXTENSIONS).build()::parse,
+                HtmlRenderer.builder().extensions(EXTENSIONS).build()::render);
+    }
+
+    @Test
+    public void manyFootnotes() {
+        assertLinearScaling(n -> IntStream.range(0, n).mapToObj(i -> "Text[^" + i + "]\n\n")
+                .collect(Collectors.joining()) +
+                IntStream.range(0, n).mapToObj(i -> "[^" + i + "]: Note " + i + "\n").collect(Collectors.joining()));
+    }
+
+    @Test
+    public void unmatchedReferences() {
+        assertLinearScaling(n -> "[^a] [^ [^b".repeat(n));
+    }
+
+    @Test
+    public void referencesToSameFootnote() {
+        assertLinearScaling(n -> "[^a] ".repeat(n) + "\n\n[^a]: note\n");
+    }
+}
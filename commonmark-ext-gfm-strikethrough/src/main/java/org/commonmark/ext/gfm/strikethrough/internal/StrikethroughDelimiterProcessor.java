@@ -51,7 +51,7 @@ public class StrikethroughDelimiterProcessor implements DelimiterProcessor {
 
             for (Node node : Nodes.between(opener, closingRun.getCloser())) {
                 strikethrough.appendChild(node);
-                sourceSpans.addAll(node.getSourceSpans());
+                sourceSpans.addFrom(node);
             }
 
             sourceSpans.addAllFrom(closingRun.getClosers(closingRun.length()));
@@ -0,0 +1,29 @@
+package org.commonmark.ext.gfm.strikethrough;
+
+import org.commonmark.Extension;
+import org.commonmark.parser.Parser;
+import org.commonmark.renderer.html.HtmlRenderer;
+import org.commonmark.testutil.ScalingTestCase;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+public class StrikethroughScalingTest extends ScalingTestCase {
+
+    private static final Set<Extension> EXTENSIONS = Set.of(StrikethroughExtension.create());
+
+    public StrikethroughScalingTest() {
+        super(Parser.builder().extensions(EXTENSIONS).build()::parse,
+                HtmlRenderer.builder().extensions(EXTENSIONS).build()::render);
+    }
+
+    @Test
+    public void openersWithoutClosers() {
+        assertLinearScaling(n -> "~~a ~b ".repeat(n));
+    }
+
+    @Test
+    public void mismatched() {
+        assertLinearScaling(n -> "~a~~ ~~~b~ ".repeat(n));
+    }
+}
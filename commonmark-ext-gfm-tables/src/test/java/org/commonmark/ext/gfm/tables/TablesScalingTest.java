@@ -0,0 +1,39 @@
+package org.commonmark.ext.gfm.tables;
+
+import org.commonmark.Extension;
+import org.commonmark.parser.Parser;
+import org.commonmark.renderer.html.HtmlRenderer;
+import org.commonmark.testutil.ScalingTestCase;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+public class TablesScalingTest extends ScalingTestCase {
+
+    private static final Set<Extension> EXTENSIONS = Set.of(TablesExtension.create());
+
+    public TablesScalingTest() {
+        super(Parser.builder().extensions(EXTENSIONS).build()::parse,
+                HtmlRenderer.builder().extensions(EXTENSIONS).build()::render);
+    }
+
+    @Test
+    public void longTable() {
+        assertLinearScaling(n -> "a|b|c\n-|-|-\n" + "1|2|3\n".repeat(n));
+    }
+
+    @Test
+    public void wideTable() {
+        assertLinearScaling(n -> "|a".repeat(n) + "|\n" + "|-".repeat(n) + "|\n" + "|b".repeat(n) + "|\n");
+    }
+
+    @Test
+    public void rowsWithMissingCells() {
+        assertLinearScaling(n -> "a|b|c|d\n-|-|-|-\n" + "1\n| |\n|||||||\n".repeat(n));
+    }
+
+    @Test
+    public void escapedPipes() {
+        assertLinearScaling(n -> "a|b\n-|-\n" + "\\|".repeat(n) + "|c\n");
+    }
+}
@@ -0,0 +1,34 @@
+package org.commonmark.ext.heading.anchor;
+
+import org.commonmark.Extension;
+import org.commonmark.parser.Parser;
+import org.commonmark.renderer.html.HtmlRenderer;
+import org.commonmark.testutil.ScalingTestCase;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+public class HeadingAnchorScalingTest extends ScalingTestCase {
+
+    private static final Set<Extension> EXTENSIONS = Set.of(HeadingAnchorExtension.create());
+
+    public HeadingAnchorScalingTest() {
+        super(Parser.builder().extensions(EXTENSIONS).build()::parse,
+                HtmlRenderer.builder().extensions(EXTENSIONS).build()::render);
+    }
+
+    @Test
+    public void sameHeadings() {
+        assertLinearScaling(n -> "# Heading\n".repeat(n));
+    }
+
+    @Test
+    public void headingsLikeGeneratedIds() {
+        assertLinearScaling(n -> "# a\n# a-1\n".repeat(n));
+    }
+
+    @Test
+    public void longHeading() {
+        assertLinearScaling(n -> "# " + "a *b* ".repeat(n) + "\n");
+    }
+}
@@ -32,17 +32,13 @@ public class ImageAttributesDelimiterProcessor implements DelimiterProcessor {
 
     @Override
     public int process(DelimiterRun openingRun, DelimiterRun closingRun) {
-        if (openingRun.length() != 1) {
-            return 0;
-        }
-
         // Check if the attributes can be applied - if the previous node is an Image, and if all the attributes are in
         // the set of SUPPORTED_ATTRIBUTES
-        Text opener = openingRun.getOpener();
-        Node nodeToStyle = opener.getPrevious();
-        if (!(nodeToStyle instanceof Image)) {
+        if (rejectsOpener(openingRun)) {
             return 0;
         }
+        Text opener = openingRun.getOpener();
+        Node nodeToStyle = opener.getPrevious();
 
         List<Node> toUnlink = new ArrayList<>();
         StringBuilder content = new StringBuilder();
@@ -84,4 +80,10 @@ public class ImageAttributesDelimiterProcessor implements DelimiterProcessor {
 
         return 1;
     }
+
+    @Override
+    public boolean rejectsOpener(DelimiterRun openingRun) {
+        // Doesn't depend on the closer, so an opener rejected for this isn't tried again
+        return openingRun.length() != 1 || !(openingRun.getOpener().getPrevious() instanceof Image);
+    }
 }
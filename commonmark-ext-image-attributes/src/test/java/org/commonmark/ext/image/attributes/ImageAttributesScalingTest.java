@@ -0,0 +1,34 @@
+package org.commonmark.ext.image.attributes;
+
+import org.commonmark.Extension;
+import org.commonmark.parser.Parser;
+import org.commonmark.renderer.html.HtmlRenderer;
+import org.commonmark.testutil.ScalingTestCase;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+public class ImageAttributesScalingTest extends ScalingTestCase {
+
+    private static final Set<Extension> EXTENSIONS = Set.of(ImageAttributesExtension.create());
+
+    public ImageAttributesScalingTest() {
+        super(Parser.builder().extensions(EXTENSIONS).build()::parse,
+                HtmlRenderer.builder().extensions(EXTENSIONS).build()::render);
+    }
+
+    @Test
+    public void images() {
+        assertLinearScaling(n -> "![a](/b){width=1 height=2} ".repeat(n));
+    }
+
+    @Test
+    public void unclosedAttributes() {
+        assertLinearScaling(n -> "![a](/b){width=1 { ".repeat(n));
+    }
+
+    @Test
+    public void bracesWithoutImages() {
+        assertLinearScaling(n -> "{a} {b=c} ".repeat(n));
+    }
+}
@@ -51,6 +51,16 @@ public class ImageAttributesTest extends RenderingTestCase {
                 "<p><img src=\"/url.png\" alt=\"text\" />{{height=5}}</p>\n");
     }
 
+    @Test
+    public void bracesWithoutImages() {
+        assertRendering("{a} ![text](/url.png){height=5} {b}",
+                "<p>{a} <img src=\"/url.png\" alt=\"text\" height=\"5\" /> {b}</p>\n");
+        assertRendering("![text](/url.png){a} {b} {height=5}",
+                "<p><img src=\"/url.png\" alt=\"text\" />{a} {b} {height=5}</p>\n");
+        assertRendering("{{a} ![text](/url.png){height=5}}",
+                "<p>{{a} <img src=\"/url.png\" alt=\"text\" height=\"5\" />}</p>\n");
+    }
+
     @Test
     public void mismatchingDelimitersAreIgnored() {
         assertRendering("![text](/url.png){", "<p><img src=\"/url.png\" alt=\"text\" />{</p>\n");
@@ -40,7 +40,7 @@ public class InsDelimiterProcessor implements DelimiterProcessor {
 
             for (Node node : Nodes.between(opener, closingRun.getCloser())) {
                 ins.appendChild(node);
-                sourceSpans.addAll(node.getSourceSpans());
+                sourceSpans.addFrom(node);
             }
 
             sourceSpans.addAllFrom(closingRun.getClosers(2));
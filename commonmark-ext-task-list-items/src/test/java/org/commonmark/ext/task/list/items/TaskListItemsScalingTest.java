@@ -0,0 +1,29 @@
+package org.commonmark.ext.task.list.items;
+
+import org.commonmark.Extension;
+import org.commonmark.parser.Parser;
+import org.commonmark.renderer.html.HtmlRenderer;
+import org.commonmark.testutil.ScalingTestCase;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+public class TaskListItemsScalingTest extends ScalingTestCase {
+
+    private static final Set<Extension> EXTENSIONS = Set.of(TaskListItemsExtension.create());
+
+    public TaskListItemsScalingTest() {
+        super(Parser.builder().extensions(EXTENSIONS).build()::parse,
+                HtmlRenderer.builder().extensions(EXTENSIONS).build()::render);
+    }
+
+    @Test
+    public void manyItems() {
+        assertLinearScaling(n -> "- [ ] a\n- [x] b\n".repeat(n));
+    }
+
+    @Test
+    public void nestedItems() {
+        assertLinearScaling(n -> "- [ ] a\n  - [x] b\n    - [ ] c\n".repeat(n));
+    }
+}
@@ -10,6 +10,7 @@ import org.commonmark.parser.block.*;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -23,6 +24,8 @@ public class YamlFrontMatterBlockParser extends AbstractBlockParser {
     private boolean inLiteral;
     private String currentKey;
     private List<String> currentValues;
+    // Lines of a literal value, joined when the value is complete instead of for each line
+    private StringBuilder currentLiteral;
     private YamlFrontMatterBlock block;
 
     public YamlFrontMatterBlockParser() {
@@ -46,17 +49,13 @@ public class YamlFrontMatterBlockParser extends AbstractBlockParser {
         final CharSequence line = parserState.getLine().getContent();
 
         if (REGEX_END.matcher(line).matches()) {
-            if (currentKey != null) {
-                block.appendChild(new YamlFrontMatterNode(currentKey, currentValues));
-            }
+            addCurrentNode();
             return BlockContinue.finished();
         }
 
         Matcher matcher = REGEX_METADATA.matcher(line);
         if (matcher.matches()) {
-            if (currentKey != null) {
-                block.appendChild(new YamlFrontMatterNode(currentKey, currentValues));
-            }
+            addCurrentNode();
 
             inLiteral = false;
             currentKey = matcher.group(1);
@@ -73,10 +72,10 @@ public class YamlFrontMatterBlockParser extends AbstractBlockParser {
             if (inLiteral) {
                 matcher = REGEX_METADATA_LITERAL.matcher(line);
                 if (matcher.matches()) {
-                    if (currentValues.size() == 1) {
-                        currentValues.set(0, currentValues.get(0) + "\n" + matcher.group(1).trim());
+                    if (currentLiteral == null) {
+                        currentLiteral = new StringBuilder(matcher.group(1).trim());
                     } else {
-                        currentValues.add(matcher.group(1).trim());
+                        currentLiteral.append('\n').append(matcher.group(1).trim());
                     }
                 }
             } else {
@@ -95,6 +94,16 @@ public class YamlFrontMatterBlockParser extends AbstractBlockParser {
     public void parseInlines(InlineParser inlineParser) {
     }
 
+    private void addCurrentNode() {
+        if (currentKey != null) {
+            if (currentLiteral != null) {
+                currentValues.add(currentLiteral.toString());
+                currentLiteral = null;
+            }
+            block.appendChild(new YamlFrontMatterNode(currentKey, currentValues));
+        }
+    }
+
     private static String parseString(String s) {
         // Limited parsing of https://yaml.org/spec/1.2.2/#73-flow-scalar-styles
         // We assume input is well-formed and otherwise treat it as a plain string. In a real
@@ -114,6 +123,11 @@ public class YamlFrontMatterBlockParser extends AbstractBlockParser {
     }
 
     public static class Factory extends AbstractBlockParserFactory {
+        @Override
+        public Set<Character> getTriggerCharacters() {
+            return Set.of('-');
+        }
+
         @Override
         public BlockStart tryStart(ParserState state, MatchedBlockParser matchedBlockParser) {
             CharSequence line = state.getLine().getContent();
@@ -0,0 +1,39 @@
+package org.commonmark.ext.front.matter;
+
+import org.commonmark.Extension;
+import org.commonmark.parser.Parser;
+import org.commonmark.renderer.html.HtmlRenderer;
+import org.commonmark.testutil.ScalingTestCase;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+public class YamlFrontMatterScalingTest extends ScalingTestCase {
+
+    private static final Set<Extension> EXTENSIONS = Set.of(YamlFrontMatterExtension.create());
+
+    public YamlFrontMatterScalingTest() {
+        super(Parser.builder().extensions(EXTENSIONS).build()::parse,
+                HtmlRenderer.builder().extensions(EXTENSIONS).build()::render);
+    }
+
+    @Test
+    public void manyKeys() {
+        assertLinearScaling(n -> "---\n" + "key: value\n".repeat(n) + "---\n\ntext\n");
+    }
+
+    @Test
+    public void listValues() {
+        assertLinearScaling(n -> "---\nkey:\n" + "  - value\n".repeat(n) + "---\n");
+    }
+
+    @Test
+    public void literalValue() {
+        assertLinearScaling(n -> "---\nkey: |\n" + "  line\n".repeat(n) + "---\n");
+    }
+
+    @Test
+    public void unclosed() {
+        assertLinearScaling(n -> "---\n" + "key: value\n".repeat(n));
+    }
+}
@@ -0,0 +1,107 @@
+package org.commonmark.testutil;
+
+import org.junit.jupiter.api.Tag;
+
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.UnaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Base class for tests that check that the time for rendering adversarial input grows linearly with its size.
+ * <p>
+ * Each generator is calibrated to a size where rendering takes a measurable amount of time, and then measured at that
+ * size and at {@value #SIZE_FACTOR} times that size. Linear growth means the time grows by about the same factor,
+ * quadratic growth by its square. The test fails when the factor is more than {@value #TOLERANCE} times what linear
+ * growth would result in, which leaves room for measurement noise but catches quadratic behavior.
+ * <p>
+ * Subclasses pass the parser and renderer to the constructor, and each test passes a generator to
+ * {@link #assertLinearScaling}. As the tests measure time, they depend on the load of the machine; they are tagged
+ * {@code scaling} and only run with {@code mvn -Pscaling test}.
+ */
+@Tag("scaling")
+public abstract class ScalingTestCase {
+
+    private static final int SIZE_FACTOR = 8;
+    private static final int TOLERANCE = 3;
+    private static final int RUNS = 5;
+    private static final int CALIBRATION_RUNS = 2;
+    private static final long MIN_CALIBRATED_NANOS = 5_000_000;
+
+    private final UnaryOperator<String> parseAndRender;
+
+    /**
+     * @param parse  parses the input, e.g. {@code parser::parse}
+     * @param render renders the parsed input, e.g. {@code renderer::render}
+     */
+    protected <T> ScalingTestCase(Function<String, T> parse, Function<T, String> render) {
+        this.parseAndRender = source -> render.apply(parse.apply(source));
+    }
+
+    /**
+     * Assert that the time for rendering the input returned by the generator grows linearly with the size.
+     *
+     * @param generator returns input of the given size, e.g. the number of times a pattern is repeated
+     */
+    protected void assertLinearScaling(IntFunction<String> generator) {
+        assertLinearScaling(generator, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Same as {@link #assertLinearScaling(IntFunction)}, but with a maximum size for the generator, e.g. for inputs
+     * whose rendering is limited by the stack size.
+     */
+    protected void assertLinearScaling(IntFunction<String> generator, int maxSize) {
+        int maxCalibratedSize = Math.max(maxSize / SIZE_FACTOR, 1);
+        // Calibrate again after the first round has warmed up the code, as interpreted code is much slower
+        int size = calibrate(generator, 1, maxCalibratedSize);
+        size = calibrate(generator, Math.max(size / 4, 1), maxCalibratedSize);
+        String small;
+        String large;
+        long smallNanos;
+        while (true) {
+            small = generator.apply(size);
+            large = generator.apply(size * SIZE_FACTOR);
+
+            // Warm up with both inputs, so that the code used for the larger one is compiled too
+            parseAndRender.apply(small);
+            parseAndRender.apply(large);
+
+            // Compilation can make the small input too fast to measure reliably after calibration, use a bigger one then
+            smallNanos = measure(small, RUNS);
+            if (smallNanos >= MIN_CALIBRATED_NANOS || size >= maxCalibratedSize) {
+                break;
+            }
+            size = Math.min(size * 2, maxCalibratedSize);
+        }
+        long largeNanos = measure(large, RUNS);
+        double factor = (double) largeNanos / smallNanos;
+        assertThat(factor)
+                .as("Rendering input of size %d took %d ms, size %d took %d ms (factor %.1f)",
+                        size, smallNanos / 1_000_000, size * SIZE_FACTOR, largeNanos / 1_000_000, factor)
+                .isLessThan(SIZE_FACTOR * TOLERANCE);
+    }
+
+    private int calibrate(IntFunction<String> generator, int startSize, int maxSize) {
+        int size = startSize;
+        while (size < maxSize) {
+            if (measure(generator.apply(size), CALIBRATION_RUNS) >= MIN_CALIBRATED_NANOS) {
+                break;
+            }
+            size = (int) Math.min((long) size * 2, maxSize);
+        }
+        return size;
+    }
+
+    private long measure(String input, int runs) {
+        // Use the fastest run, as the slower ones are slowed down by something else (e.g. GC or compilation)
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            parseAndRender.apply(input);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+}
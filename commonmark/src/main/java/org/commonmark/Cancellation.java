@@ -0,0 +1,80 @@
+package org.commonmark;
+
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Token for cancelling the parsing or rendering of one input, e.g. when the request it belongs to times out. Create a
+ * new one for each call, pass it to {@link org.commonmark.parser.Parser#parse(String, Cancellation)} or
+ * {@link org.commonmark.renderer.html.HtmlRenderer#render(org.commonmark.node.Node, Cancellation)}, and call
+ * {@link #cancel()} from any thread. Parsing or rendering then stops at its next check with a
+ * {@link CancellationException}.
+ * <p>
+ * The token is checked regularly, e.g. for each line and during inline parsing. Note that with parallel parsing (see
+ * {@link org.commonmark.parser.Parser.Builder#parallelInlineParsing}), that happens on the threads of the pool, not
+ * the calling thread. Example with a deadline:
+ * <pre><code>
+ * long deadline = System.nanoTime() + timeout.toNanos();
+ * Node document = parser.parse(input, Cancellation.of(() -&gt; System.nanoTime() - deadline &gt; 0));
+ * </code></pre>
+ */
+public final class Cancellation {
+
+    private final BooleanSupplier check;
+    private volatile boolean cancelled;
+
+    /**
+     * Create a token that is cancelled by calling {@link #cancel()}.
+     */
+    public Cancellation() {
+        this(null);
+    }
+
+    private Cancellation(BooleanSupplier check) {
+        this.check = check;
+    }
+
+    /**
+     * Create a token that is cancelled by calling {@link #cancel()} or when {@code check} returns true. The check is
+     * called from whichever thread does the work, so it shouldn't depend on the current thread (e.g. its interrupted
+     * status).
+     *
+     * @param check returns true when the work should be cancelled - must not be null
+     * @return the token
+     */
+    public static Cancellation of(BooleanSupplier check) {
+        Objects.requireNonNull(check, "check must not be null");
+        return new Cancellation(check);
+    }
+
+    /**
+     * Cancel the work this token was passed to.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * @return whether {@link #cancel()} was called or the check returned true
+     */
+    public boolean isCancelled() {
+        if (cancelled) {
+            return true;
+        }
+        if (check != null && check.getAsBoolean()) {
+            cancelled = true;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @throws CancellationException if {@link #isCancelled()}
+     */
+    public void throwIfCancelled() {
+        if (isCancelled()) {
+            throw new CancellationException("Cancelled");
+        }
+    }
+}
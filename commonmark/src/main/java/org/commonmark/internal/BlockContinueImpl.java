@@ -4,6 +4,22 @@ import org.commonmark.parser.block.BlockContinue;
 
 public class BlockContinueImpl extends BlockContinue {
 
+    /**
+     * Instances are immutable, so we can share them. Every open block returns one for every line, and the index or
+     * column is where the block's content starts (e.g. after a block quote marker), which is almost always small.
+     */
+    private static final int CACHE_SIZE = 128;
+    private static final BlockContinueImpl[] AT_INDEX = new BlockContinueImpl[CACHE_SIZE];
+    private static final BlockContinueImpl[] AT_COLUMN = new BlockContinueImpl[CACHE_SIZE];
+    private static final BlockContinueImpl FINISHED = new BlockContinueImpl(-1, -1, true);
+
+    static {
+        for (int i = 0; i < CACHE_SIZE; i++) {
+            AT_INDEX[i] = new BlockContinueImpl(i, -1, false);
+            AT_COLUMN[i] = new BlockContinueImpl(-1, i, false);
+        }
+    }
+
     private final int newIndex;
     private final int newColumn;
     private final boolean finalize;
@@ -14,6 +30,24 @@ public class BlockContinueImpl extends BlockContinue {
         this.finalize = finalize;
     }
 
+    public static BlockContinueImpl atIndex(int newIndex) {
+        if (newIndex >= 0 && newIndex < CACHE_SIZE) {
+            return AT_INDEX[newIndex];
+        }
+        return new BlockContinueImpl(newIndex, -1, false);
+    }
+
+    public static BlockContinueImpl atColumn(int newColumn) {
+        if (newColumn >= 0 && newColumn < CACHE_SIZE) {
+            return AT_COLUMN[newColumn];
+        }
+        return new BlockContinueImpl(-1, newColumn, false);
+    }
+
+    public static BlockContinueImpl finished() {
+        return FINISHED;
+    }
+
     public int getNewIndex() {
         return newIndex;
     }
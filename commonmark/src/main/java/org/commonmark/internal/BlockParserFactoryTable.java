@@ -0,0 +1,69 @@
+package org.commonmark.internal;
+
+import org.commonmark.parser.block.BlockParserFactory;
+
+import java.util.*;
+
+/**
+ * The block parser factories to try for a line, depending on the character the block would start with (see
+ * {@link BlockParserFactory#getTriggerCharacters()}). For each character, the factories are in the same order as in
+ * the list the table was created from.
+ */
+public class BlockParserFactoryTable {
+
+    private static final int ASCII_SIZE = 128;
+
+    private final List<List<BlockParserFactory>> asciiFactories;
+    private final Map<Character, List<BlockParserFactory>> otherFactories;
+    private final List<BlockParserFactory> anyCharacterFactories;
+
+    public BlockParserFactoryTable(List<BlockParserFactory> factories) {
+        var triggerCharacters = new ArrayList<Set<Character>>(factories.size());
+        var otherCharacters = new HashSet<Character>();
+        for (var factory : factories) {
+            var characters = factory.getTriggerCharacters();
+            triggerCharacters.add(characters);
+            if (characters != null) {
+                for (var c : characters) {
+                    if (c >= ASCII_SIZE) {
+                        otherCharacters.add(c);
+                    }
+                }
+            }
+        }
+
+        this.asciiFactories = new ArrayList<>(ASCII_SIZE);
+        for (char c = 0; c < ASCII_SIZE; c++) {
+            asciiFactories.add(factoriesFor(c, factories, triggerCharacters));
+        }
+        this.otherFactories = new HashMap<>();
+        for (var c : otherCharacters) {
+            otherFactories.put(c, factoriesFor(c, factories, triggerCharacters));
+        }
+        this.anyCharacterFactories = factoriesFor(null, factories, triggerCharacters);
+    }
+
+    /**
+     * @param c the first non-space character of the line
+     * @return the factories that can start a block with that character
+     */
+    public List<BlockParserFactory> getFactories(char c) {
+        if (c < ASCII_SIZE) {
+            return asciiFactories.get(c);
+        }
+        var list = otherFactories.get(c);
+        return list != null ? list : anyCharacterFactories;
+    }
+
+    private static List<BlockParserFactory> factoriesFor(Character c, List<BlockParserFactory> factories,
+                                                         List<Set<Character>> triggerCharacters) {
+        var list = new ArrayList<BlockParserFactory>();
+        for (int i = 0; i < factories.size(); i++) {
+            var characters = triggerCharacters.get(i);
+            if (characters == null || (c != null && characters.contains(c))) {
+                list.add(factories.get(i));
+            }
+        }
+        return list;
+    }
+}
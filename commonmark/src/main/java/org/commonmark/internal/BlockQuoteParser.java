@@ -6,6 +6,8 @@ import org.commonmark.node.BlockQuote;
 import org.commonmark.parser.block.*;
 import org.commonmark.text.Characters;
 
+import java.util.Set;
+
 public class BlockQuoteParser extends AbstractBlockParser {
 
     private final BlockQuote block = new BlockQuote();
@@ -46,6 +48,11 @@ public class BlockQuoteParser extends AbstractBlockParser {
     }
 
     public static class Factory extends AbstractBlockParserFactory {
+        @Override
+        public Set<Character> getTriggerCharacters() {
+            return Set.of('>');
+        }
+
         @Override
         public BlockStart tryStart(ParserState state, MatchedBlockParser matchedBlockParser) {
             int nextNonSpace = state.getNextNonSpaceIndex();
@@ -0,0 +1,286 @@
+package org.commonmark.internal;
+
+import org.commonmark.node.CustomBlock;
+import org.commonmark.node.Document;
+import org.commonmark.node.Node;
+import org.commonmark.text.Characters;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Function;
+
+/**
+ * Parses a large input by splitting it into chunks that are parsed in parallel, each with its own
+ * {@link DocumentParser}, and then stitching the resulting blocks together.
+ * <p>
+ * The input is split at the start of a line after a blank line, which usually is a boundary between top-level blocks.
+ * But that's not always the case, e.g. in a fenced code block or a list. So while parsing, each chunk records all the
+ * places where only the document is open. After parsing, the chunks are checked in order: If the previous chunk ended
+ * at such a place of the next chunk, both agree on the state there and the next chunk's blocks after it can be used.
+ * Otherwise, the previous chunk's parser continues parsing until they agree (or until the end of the next chunk, in
+ * which case the next chunk isn't used at all). This means the result is always the same as when parsing sequentially.
+ * <p>
+ * Definitions (e.g. link reference definitions) of the used blocks are merged in document order (first one wins), and
+ * then inlines are parsed for each chunk in parallel. Each chunk parser gets the absolute input index and line index
+ * of where it starts, so source spans don't need to be adjusted.
+ * <p>
+ * The blocks of a chunk before its sync point are thrown away, so they must not count towards the node limit. Each
+ * chunk counts its blocks separately, and only the blocks that are used are added to the document's counter after
+ * stitching. Inline parsing then counts with the document's counter directly.
+ */
+public class ChunkedDocumentParser {
+
+    private final Function<ParseLimits.NodeCounter, DocumentParser> documentParserFactory;
+    private final ParseLimits.NodeCounter nodeCounter;
+    private final ForkJoinPool pool;
+    private final int minChunkSize;
+    private final Definitions sharedDefinitions;
+
+    /**
+     * @param documentParserFactory creates a parser that counts its nodes with the specified counter
+     * @param nodeCounter           the counter for the nodes of the document
+     */
+    public ChunkedDocumentParser(Function<ParseLimits.NodeCounter, DocumentParser> documentParserFactory,
+                                 ParseLimits.NodeCounter nodeCounter, ForkJoinPool pool, int minChunkSize,
+                                 Definitions sharedDefinitions) {
+        this.documentParserFactory = documentParserFactory;
+        this.nodeCounter = nodeCounter;
+        this.pool = pool;
+        this.minChunkSize = minChunkSize;
+        this.sharedDefinitions = sharedDefinitions;
+    }
+
+    public Document parse(String input) {
+        var chunks = split(input);
+        if (chunks.size() == 1) {
+            return documentParserFactory.apply(nodeCounter).parse(input);
+        }
+
+        var parseTasks = new ArrayList<ForkJoinTask<?>>(chunks.size());
+        for (var chunk : chunks) {
+            parseTasks.add(pool.submit(() -> chunk.parse(input)));
+        }
+        for (var task : parseTasks) {
+            task.join();
+        }
+
+        var segments = stitch(input, chunks);
+
+        long usedBlocks = 0;
+        for (var segment : segments) {
+            usedBlocks += segment.counter.getCount() - segment.from.nodeCount;
+        }
+        nodeCounter.add(usedBlocks);
+
+        var definitions = new Definitions(sharedDefinitions);
+        for (var segment : segments) {
+            segment.parser.setNodeCounter(nodeCounter);
+            segment.parser.closeBlocks();
+            var blockParsers = segment.parser.getClosedBlockParsers();
+            // The blocks before the sync point are not used, so don't bother parsing their inlines either
+            blockParsers.subList(0, segment.from.closedBlockParsers).clear();
+            for (var blockParser : blockParsers) {
+                for (var definitionMap : blockParser.getDefinitions()) {
+                    definitions.addDefinitions(definitionMap);
+                }
+            }
+        }
+
+        var inlineTasks = new ArrayList<ForkJoinTask<?>>(segments.size());
+        for (var segment : segments) {
+            inlineTasks.add(pool.submit(() -> segment.parser.finalizeAndProcess(definitions)));
+        }
+        for (var task : inlineTasks) {
+            task.join();
+        }
+
+        var document = segments.get(0).parser.getDocument();
+        for (int i = 1; i < segments.size(); i++) {
+            var segment = segments.get(i);
+            var lastBefore = segment.from.lastChild;
+            Node node = lastBefore != null ? lastBefore.getNext() : segment.parser.getDocument().getFirstChild();
+            while (node != null) {
+                Node next = node.getNext();
+                document.appendChild(node);
+                node = next;
+            }
+        }
+        return document;
+    }
+
+    /**
+     * Split the input into about equally sized chunks, each starting at a line that follows a blank line and isn't
+     * indented.
+     */
+    private List<Chunk> split(String input) {
+        int chunkCount = Math.min(pool.getParallelism(), input.length() / minChunkSize);
+        var chunks = new ArrayList<Chunk>();
+        int chunkStart = 0;
+        int chunkLineIndex = 0;
+        for (int i = 1; i < chunkCount; i++) {
+            int target = (int) ((long) input.length() * i / chunkCount);
+            if (target <= chunkStart) {
+                continue;
+            }
+            int start = findChunkStart(input, target);
+            if (start == -1) {
+                break;
+            }
+            chunks.add(new Chunk(chunkStart, chunkLineIndex, start));
+            chunkLineIndex += countLines(input, chunkStart, start);
+            chunkStart = start;
+        }
+        chunks.add(new Chunk(chunkStart, chunkLineIndex, input.length()));
+        return chunks;
+    }
+
+    private static int findChunkStart(String input, int fromIndex) {
+        int lineStart = nextLineStart(input, fromIndex);
+        boolean previousBlank = false;
+        while (lineStart != -1 && lineStart < input.length()) {
+            int lineBreak = Characters.findLineBreak(input, lineStart);
+            int lineEnd = lineBreak != -1 ? lineBreak : input.length();
+            boolean blank = Characters.skipSpaceTab(input, lineStart, lineEnd) == lineEnd;
+            if (previousBlank && !blank && !Characters.isSpaceOrTab(input, lineStart)) {
+                return lineStart;
+            }
+            previousBlank = blank;
+            lineStart = nextLineStart(input, lineEnd);
+        }
+        return -1;
+    }
+
+    /**
+     * @return the start of the line after the one containing {@code index}, or -1 if it's the last line
+     */
+    private static int nextLineStart(String input, int index) {
+        int lineBreak = Characters.findLineBreak(input, index);
+        if (lineBreak == -1) {
+            return -1;
+        }
+        if (input.charAt(lineBreak) == '\r' && lineBreak + 1 < input.length() && input.charAt(lineBreak + 1) == '\n') {
+            return lineBreak + 2;
+        }
+        return lineBreak + 1;
+    }
+
+    private static int countLines(String input, int start, int end) {
+        int lines = 0;
+        for (int i = start; i < end; i++) {
+            char c = input.charAt(i);
+            if (c == '\n') {
+                lines++;
+            } else if (c == '\r' && (i + 1 == input.length() || input.charAt(i + 1) != '\n')) {
+                lines++;
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Go through the chunks in order and determine which part of which parser to use, continuing parsers where the
+     * chunks don't agree.
+     */
+    private static List<Segment> stitch(String input, List<Chunk> chunks) {
+        var segments = new ArrayList<Segment>();
+        var first = chunks.get(0);
+        var parser = first.parser;
+        int index = first.end;
+        segments.add(new Segment(parser, first.counter, first.syncPoints.get(0)));
+        for (int i = 1; i < chunks.size(); i++) {
+            var chunk = chunks.get(i);
+            var syncPoint = findSyncPoint(chunk, parser, index);
+            if (syncPoint == null && index < chunk.end) {
+                // The chunk started in the middle of something, e.g. a fenced code block
+                var previousParser = parser;
+                index = parser.parseRange(input, index, parser.getNextLineIndex(),
+                        nextIndex -> nextIndex >= chunk.end || findSyncPoint(chunk, previousParser, nextIndex) != null);
+                syncPoint = findSyncPoint(chunk, parser, index);
+            }
+            if (syncPoint != null) {
+                parser = chunk.parser;
+                index = chunk.end;
+                segments.add(new Segment(parser, chunk.counter, syncPoint));
+            }
+        }
+        return segments;
+    }
+
+    private static SyncPoint findSyncPoint(Chunk chunk, DocumentParser parser, int index) {
+        if (parser.getDocument().getFirstChild() == null) {
+            // The chunk's parser had a non-empty document there, see Chunk#parse
+            return null;
+        }
+        return chunk.syncPoints.get(index);
+    }
+
+    private class Chunk {
+
+        private final int start;
+        private final int lineIndex;
+        private final int nextChunkStart;
+        private final Map<Integer, SyncPoint> syncPoints = new HashMap<>();
+        // Without a limit, as the blocks before the sync point are thrown away
+        private final ParseLimits.NodeCounter counter = ParseLimits.NONE.newNodeCounter();
+
+        private DocumentParser parser;
+        private int end;
+
+        Chunk(int start, int lineIndex, int nextChunkStart) {
+            this.start = start;
+            this.lineIndex = lineIndex;
+            this.nextChunkStart = nextChunkStart;
+        }
+
+        void parse(String input) {
+            parser = documentParserFactory.apply(counter);
+            var document = parser.getDocument();
+            if (start != 0) {
+                // Block parsers can check whether they're at the start of the document (e.g. for front matter)
+                document.appendChild(new ChunkStart());
+            }
+            end = parser.parseRange(input, start, lineIndex, index -> {
+                syncPoints.put(index, new SyncPoint(document.getLastChild(), parser.getClosedBlockParsers().size(),
+                        counter.getCount()));
+                return index >= nextChunkStart;
+            });
+        }
+    }
+
+    /**
+     * The state of a parser at the start of a line where only the document was open.
+     */
+    private static class SyncPoint {
+
+        private final Node lastChild;
+        private final int closedBlockParsers;
+        // Number of blocks the parser had counted
+        private final long nodeCount;
+
+        SyncPoint(Node lastChild, int closedBlockParsers, long nodeCount) {
+            this.lastChild = lastChild;
+            this.closedBlockParsers = closedBlockParsers;
+            this.nodeCount = nodeCount;
+        }
+    }
+
+    private static class Segment {
+
+        private final DocumentParser parser;
+        private final ParseLimits.NodeCounter counter;
+        private final SyncPoint from;
+
+        Segment(DocumentParser parser, ParseLimits.NodeCounter counter, SyncPoint from) {
+            this.parser = parser;
+            this.counter = counter;
+            this.from = from;
+        }
+    }
+
+    private static class ChunkStart extends CustomBlock {
+    }
+}
@@ -1,13 +1,29 @@
 package org.commonmark.internal;
 
 import org.commonmark.node.DefinitionMap;
+import org.commonmark.node.Document;
+import org.commonmark.node.Node;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 public class Definitions {
 
     private final Map<Class<?>, DefinitionMap<?>> definitionsByType = new HashMap<>();
+    private final Definitions shared;
+
+    public Definitions() {
+        this(null);
+    }
+
+    /**
+     * @param shared definitions to look up when there's no definition with the label in this instance, e.g. the ones
+     *               configured on the parser; can be null. They are not copied and must not be modified anymore.
+     */
+    public Definitions(Definitions shared) {
+        this.shared = shared;
+    }
 
     public <D> void addDefinitions(DefinitionMap<D> definitionMap) {
         var existingMap = getMap(definitionMap.getType());
@@ -20,10 +36,86 @@ public class Definitions {
 
     public <V> V getDefinition(Class<V> type, String label) {
         var definitionMap = getMap(type);
-        if (definitionMap == null) {
-            return null;
+        if (definitionMap != null) {
+            var definition = definitionMap.get(label);
+            if (definition != null) {
+                return definition;
+            }
+        }
+        // spec: When there are multiple matching link reference definitions, the first is used. The shared ones
+        // count as coming after the document.
+        return shared != null ? shared.getDefinition(type, label) : null;
+    }
+
+    /**
+     * @return whether there are no definitions in this instance, not counting the shared ones
+     */
+    public boolean isEmpty() {
+        for (var definitionMap : definitionsByType.values()) {
+            if (!definitionMap.keySet().isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return whether any of the definitions is inside one of the specified nodes, or is not a node (so it's unknown
+     * where it was defined); not counting the shared ones
+     */
+    public boolean anyWithin(Set<Node> nodes) {
+        for (var definitionMap : definitionsByType.values()) {
+            if (anyWithin(definitionMap, nodes)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Remove the definitions that are nodes which are not part of the document (anymore), e.g. because they were after
+     * the point where parsing stopped. The shared definitions are not affected.
+     */
+    public void removeDetached(Document document) {
+        for (var entry : definitionsByType.entrySet()) {
+            entry.setValue(retainAttached(entry.getValue(), document));
+        }
+    }
+
+    private static <D> DefinitionMap<D> retainAttached(DefinitionMap<D> definitionMap, Document document) {
+        var result = new DefinitionMap<>(definitionMap.getType());
+        for (var label : definitionMap.keySet()) {
+            var definition = definitionMap.get(label);
+            if (!(definition instanceof Node) || isInDocument((Node) definition, document)) {
+                result.putIfAbsent(label, definition);
+            }
+        }
+        return result;
+    }
+
+    private static boolean anyWithin(DefinitionMap<?> definitionMap, Set<Node> nodes) {
+        for (var label : definitionMap.keySet()) {
+            var definition = definitionMap.get(label);
+            if (!(definition instanceof Node)) {
+                return true;
+            }
+            for (var node = (Node) definition; node != null; node = node.getParent()) {
+                if (nodes.contains(node)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isInDocument(Node node, Document document) {
+        while (node != null) {
+            if (node == document) {
+                return true;
+            }
+            node = node.getParent();
         }
-        return definitionMap.get(label);
+        return false;
     }
 
     private <V> DefinitionMap<V> getMap(Class<V> type) {
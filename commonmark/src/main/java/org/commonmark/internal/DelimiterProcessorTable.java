@@ -0,0 +1,122 @@
+package org.commonmark.internal;
+
+import org.commonmark.internal.inline.AsteriskDelimiterProcessor;
+import org.commonmark.internal.inline.UnderscoreDelimiterProcessor;
+import org.commonmark.parser.delimiter.DelimiterProcessor;
+
+import java.util.*;
+
+/**
+ * The delimiter processors by delimiter character, including the built-in ones for emphasis. Each delimiter character
+ * has an index from 0 to {@link #size()} (exclusive), so that per-character state can be kept in arrays while
+ * processing delimiters.
+ */
+public class DelimiterProcessorTable {
+
+    private static final int ASCII_SIZE = 128;
+
+    private final List<DelimiterProcessor> customProcessors;
+    private final int[] asciiIndexes = new int[ASCII_SIZE];
+    private final Map<Character, Integer> otherIndexes = new HashMap<>();
+    private final char[] characters;
+    private final DelimiterProcessor[] processors;
+
+    /**
+     * @param customProcessors the custom delimiter processors, in addition to the built-in ones
+     * @throws IllegalArgumentException if there are conflicting delimiter processors for a character
+     */
+    public DelimiterProcessorTable(List<DelimiterProcessor> customProcessors) {
+        this.customProcessors = customProcessors;
+
+        var map = new LinkedHashMap<Character, DelimiterProcessor>();
+        addDelimiterProcessors(List.of(new AsteriskDelimiterProcessor(), new UnderscoreDelimiterProcessor()), map);
+        addDelimiterProcessors(customProcessors, map);
+
+        Arrays.fill(asciiIndexes, -1);
+        this.characters = new char[map.size()];
+        this.processors = new DelimiterProcessor[map.size()];
+        int index = 0;
+        for (var entry : map.entrySet()) {
+            char c = entry.getKey();
+            characters[index] = c;
+            processors[index] = entry.getValue();
+            if (c < ASCII_SIZE) {
+                asciiIndexes[c] = index;
+            } else {
+                otherIndexes.put(c, index);
+            }
+            index++;
+        }
+    }
+
+    public List<DelimiterProcessor> getCustomProcessors() {
+        return customProcessors;
+    }
+
+    /**
+     * @return the number of delimiter characters
+     */
+    public int size() {
+        return characters.length;
+    }
+
+    /**
+     * @return the index of the delimiter character, or -1 if there's no delimiter processor for it
+     */
+    public int indexOf(char c) {
+        if (c < ASCII_SIZE) {
+            return asciiIndexes[c];
+        }
+        Integer index = otherIndexes.get(c);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * @return the delimiter processor for the character, or {@code null}
+     */
+    public DelimiterProcessor get(char c) {
+        int index = indexOf(c);
+        return index != -1 ? processors[index] : null;
+    }
+
+    public DelimiterProcessor getProcessor(int index) {
+        return processors[index];
+    }
+
+    public char getCharacter(int index) {
+        return characters[index];
+    }
+
+    private static void addDelimiterProcessors(Iterable<DelimiterProcessor> delimiterProcessors, Map<Character, DelimiterProcessor> map) {
+        for (DelimiterProcessor delimiterProcessor : delimiterProcessors) {
+            char opening = delimiterProcessor.getOpeningCharacter();
+            char closing = delimiterProcessor.getClosingCharacter();
+            if (opening == closing) {
+                DelimiterProcessor old = map.get(opening);
+                if (old != null && old.getOpeningCharacter() == old.getClosingCharacter()) {
+                    StaggeredDelimiterProcessor s;
+                    if (old instanceof StaggeredDelimiterProcessor) {
+                        s = (StaggeredDelimiterProcessor) old;
+                    } else {
+                        s = new StaggeredDelimiterProcessor(opening);
+                        s.add(old);
+                    }
+                    s.add(delimiterProcessor);
+                    map.put(opening, s);
+                } else {
+                    addDelimiterProcessorForChar(opening, delimiterProcessor, map);
+                }
+            } else {
+                addDelimiterProcessorForChar(opening, delimiterProcessor, map);
+                addDelimiterProcessorForChar(closing, delimiterProcessor, map);
+            }
+        }
+    }
+
+    private static void addDelimiterProcessorForChar(char delimiterChar, DelimiterProcessor toAdd, Map<Character, DelimiterProcessor> delimiterProcessors) {
+        DelimiterProcessor existing = delimiterProcessors.put(delimiterChar, toAdd);
+        if (existing != null) {
+            throw new IllegalArgumentException("Delimiter processor conflict with delimiter char '" + delimiterChar + "'");
+        }
+    }
+}
@@ -1,21 +1,30 @@
 package org.commonmark.internal;
 
+import org.commonmark.Cancellation;
 import org.commonmark.internal.util.LineReader;
+import org.commonmark.internal.util.LineSource;
 import org.commonmark.internal.util.Parsing;
+import org.commonmark.internal.util.StringView;
 import org.commonmark.node.*;
 import org.commonmark.parser.IncludeSourceSpans;
+import org.commonmark.parser.InlineParser;
 import org.commonmark.parser.InlineParserFactory;
 import org.commonmark.parser.SourceLine;
 import org.commonmark.parser.SourceLines;
+import org.commonmark.parser.StopCondition;
 import org.commonmark.parser.beta.LinkProcessor;
 import org.commonmark.parser.beta.InlineContentParserFactory;
 import org.commonmark.parser.block.*;
-import org.commonmark.parser.delimiter.DelimiterProcessor;
 import org.commonmark.text.Characters;
 
 import java.io.IOException;
 import java.io.Reader;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
 
 public class DocumentParser implements ParserState {
 
@@ -69,22 +78,40 @@ public class DocumentParser implements ParserState {
     private int indent = 0;
     private boolean blank;
 
-    private final List<BlockParserFactory> blockParserFactories;
+    private final BlockParserFactoryTable blockParserFactories;
     private final InlineParserFactory inlineParserFactory;
     private final List<InlineContentParserFactory> inlineContentParserFactories;
-    private final List<DelimiterProcessor> delimiterProcessors;
+    private final DelimiterProcessorTable delimiterProcessors;
     private final List<LinkProcessor> linkProcessors;
     private final Set<Character> linkMarkers;
     private final IncludeSourceSpans includeSourceSpans;
+    private final ForkJoinPool inlineParsingPool;
+    private final int parallelInlineParsingThreshold;
+    private final boolean lazyInlineParsing;
+    private final boolean lazyTextLiterals;
+    private final ParseLimits limits;
+    private ParseLimits.NodeCounter nodeCounter;
     private final DocumentBlockParser documentBlockParser;
-    private final Definitions definitions = new Definitions();
+    private final Definitions definitions;
 
     private final List<OpenBlockParser> openBlockParsers = new ArrayList<>();
     private final List<BlockParser> allBlockParsers = new ArrayList<>();
-
-    public DocumentParser(List<BlockParserFactory> blockParserFactories, InlineParserFactory inlineParserFactory,
-                          List<InlineContentParserFactory> inlineContentParserFactories, List<DelimiterProcessor> delimiterProcessors,
-                          List<LinkProcessor> linkProcessors, Set<Character> linkMarkers, IncludeSourceSpans includeSourceSpans) {
+    private final MatchedBlockParserImpl matchedBlockParser = new MatchedBlockParserImpl();
+
+    private InlineParserContextImpl inlineParserContext;
+    private InlineParser inlineParser;
+    private Consumer<Node> blockConsumer;
+    private StopCondition stopCondition;
+    private Cancellation cancellation;
+    private Node lastCheckedBlock;
+    private int checkedBlocks;
+
+    public DocumentParser(BlockParserFactoryTable blockParserFactories, InlineParserFactory inlineParserFactory,
+                          List<InlineContentParserFactory> inlineContentParserFactories, DelimiterProcessorTable delimiterProcessors,
+                          List<LinkProcessor> linkProcessors, Set<Character> linkMarkers, IncludeSourceSpans includeSourceSpans,
+                          ForkJoinPool inlineParsingPool, int parallelInlineParsingThreshold, boolean lazyInlineParsing,
+                          boolean lazyTextLiterals, Definitions sharedDefinitions, ParseLimits limits,
+                          ParseLimits.NodeCounter nodeCounter) {
         this.blockParserFactories = blockParserFactories;
         this.inlineParserFactory = inlineParserFactory;
         this.inlineContentParserFactories = inlineContentParserFactories;
@@ -92,6 +119,13 @@ public class DocumentParser implements ParserState {
         this.linkProcessors = linkProcessors;
         this.linkMarkers = linkMarkers;
         this.includeSourceSpans = includeSourceSpans;
+        this.inlineParsingPool = inlineParsingPool;
+        this.parallelInlineParsingThreshold = parallelInlineParsingThreshold;
+        this.lazyInlineParsing = lazyInlineParsing;
+        this.lazyTextLiterals = lazyTextLiterals;
+        this.limits = limits;
+        this.nodeCounter = nodeCounter;
+        this.definitions = new Definitions(sharedDefinitions);
 
         this.documentBlockParser = new DocumentBlockParser();
         activateBlockParser(new OpenBlockParser(documentBlockParser, 0));
@@ -123,10 +157,35 @@ public class DocumentParser implements ParserState {
      * The main parsing function. Returns a parsed document AST.
      */
     public Document parse(String input) {
-        int lineStart = 0;
-        int lineBreak;
-        while ((lineBreak = Characters.findLineBreak(input, lineStart)) != -1) {
-            String line = input.substring(lineStart, lineBreak);
+        parseRange(input, 0, 0, null);
+        return finalizeAndProcess();
+    }
+
+    /**
+     * Parse the lines of the input starting at {@code inputIndex}, which must be the start of the line with index
+     * {@code lineIndex}. Stops at the end of the input, or at the start of a line where only the document is open and
+     * {@code stopAt} (if not null) accepts the input index of the line. Inlines are only parsed when finalizing.
+     *
+     * @return the input index where parsing stopped
+     */
+    public int parseRange(String input, int inputIndex, int lineIndex, IntPredicate stopAt) {
+        this.lineIndex = lineIndex - 1;
+        int lineStart = inputIndex;
+        while (lineStart < input.length()) {
+            if (stopAt != null && openBlockParsers.size() == 1 && stopAt.test(lineStart)) {
+                return lineStart;
+            }
+            if (stopCondition != null && shouldStop(lineStart)) {
+                return lineStart;
+            }
+            int lineBreak = Characters.findLineBreak(input, lineStart);
+            if (lineBreak == -1) {
+                parseLine(StringView.of(input, lineStart, input.length()), lineStart);
+                return input.length();
+            }
+
+            // Lines are views into the input, so that we only copy content where a node needs its own String
+            CharSequence line = StringView.of(input, lineStart, lineBreak);
             parseLine(line, lineStart);
             if (lineBreak + 1 < input.length() && input.charAt(lineBreak) == '\r' && input.charAt(lineBreak + 1) == '\n') {
                 lineStart = lineBreak + 2;
@@ -134,22 +193,28 @@ public class DocumentParser implements ParserState {
                 lineStart = lineBreak + 1;
             }
         }
-        if (!input.isEmpty() && (lineStart == 0 || lineStart < input.length())) {
-            String line = input.substring(lineStart);
-            parseLine(line, lineStart);
-        }
-
-        return finalizeAndProcess();
+        return lineStart;
     }
 
     public Document parse(Reader input) throws IOException {
-        var lineReader = new LineReader(input);
+        return parse(new LineReader(input));
+    }
+
+    public Document parse(LineReader lineReader) throws IOException {
+        lineReader.setLimits(limits);
+        return parse((LineSource) lineReader);
+    }
+
+    public Document parse(LineSource lineSource) throws IOException {
         int inputIndex = 0;
-        String line;
-        while ((line = lineReader.readLine()) != null) {
+        while (stopCondition == null || !shouldStop(inputIndex)) {
+            CharSequence line = lineSource.readLineView();
+            if (line == null) {
+                break;
+            }
             parseLine(line, inputIndex);
             inputIndex += line.length();
-            var eol = lineReader.getLineTerminator();
+            var eol = lineSource.getLineTerminator();
             if (eol != null) {
                 inputIndex += eol.length();
             }
@@ -158,6 +223,64 @@ public class DocumentParser implements ParserState {
         return finalizeAndProcess();
     }
 
+    /**
+     * Parse the input and pass each top-level block to the consumer as soon as it's closed, instead of collecting them
+     * in the document. Before a block is passed on, its inlines are parsed (with the definitions seen so far) and it's
+     * unlinked from the document.
+     */
+    public void parseBlocks(LineReader lineReader, Consumer<Node> blockConsumer) throws IOException {
+        this.blockConsumer = blockConsumer;
+        parse(lineReader);
+    }
+
+    /**
+     * Stop parsing when the condition is true for a closed top-level block. Not supported with
+     * {@link #parseBlocks}.
+     */
+    public void setStopCondition(StopCondition stopCondition) {
+        this.stopCondition = stopCondition;
+    }
+
+    /**
+     * Check the cancellation token for each line and while parsing inlines (also on the threads of the pool for
+     * parallel inline parsing, but not for lazy inline parsing, which happens after parsing returned).
+     */
+    public void setCancellation(Cancellation cancellation) {
+        this.cancellation = cancellation;
+    }
+
+    /**
+     * Use an inline parser from a previous document instead of creating a new one. The context's definitions are
+     * replaced with the ones of this document before parsing inlines.
+     */
+    public void reuseInlineParser(InlineParser inlineParser, InlineParserContextImpl inlineParserContext) {
+        this.inlineParser = inlineParser;
+        this.inlineParserContext = inlineParserContext;
+    }
+
+    /**
+     * @return the index of the next line that would be parsed
+     */
+    public int getNextLineIndex() {
+        return lineIndex + 1;
+    }
+
+    public Definitions getDefinitions() {
+        return definitions;
+    }
+
+    Document getDocument() {
+        return documentBlockParser.getBlock();
+    }
+
+    /**
+     * @return the block parsers that have been closed but whose inlines haven't been parsed yet, in the order they were
+     * closed
+     */
+    List<BlockParser> getClosedBlockParsers() {
+        return allBlockParsers;
+    }
+
     @Override
     public SourceLine getLine() {
         return line;
@@ -197,7 +320,10 @@ public class DocumentParser implements ParserState {
      * Analyze a line of text and update the document appropriately. We parse markdown text by calling this on each
      * line of input, then finalizing the document.
      */
-    private void parseLine(String ln, int inputIndex) {
+    private void parseLine(CharSequence ln, int inputIndex) {
+        if (cancellation != null) {
+            cancellation.throwIfCancelled();
+        }
         setLine(ln, inputIndex);
 
         // For each containing block, try to parse the associated line start.
@@ -231,6 +357,8 @@ public class DocumentParser implements ParserState {
 
         int unmatchedBlocks = openBlockParsers.size() - matches;
         BlockParser blockParser = openBlockParsers.get(matches - 1).blockParser;
+        // Nesting depth of blockParser, the document being 0
+        int depth = matches - 1;
         boolean startedNewBlock = false;
 
         int lastIndex = index;
@@ -249,7 +377,8 @@ public class DocumentParser implements ParserState {
             }
 
             BlockStartImpl blockStart = findBlockStart(blockParser);
-            if (blockStart == null) {
+            // Blocks that would be nested too deeply are not started, so the line becomes text instead
+            if (blockStart == null || depth + blockStart.getBlockParsers().length > limits.getMaxNestingDepth()) {
                 setNewIndex(nextNonSpace);
                 break;
             }
@@ -287,6 +416,7 @@ public class DocumentParser implements ParserState {
                     newBlockParser.getBlock().setSourceSpans(replacedSourceSpans);
                 }
                 blockParser = newBlockParser;
+                depth++;
                 tryBlockStarts = newBlockParser.isContainer();
             }
         }
@@ -328,13 +458,14 @@ public class DocumentParser implements ParserState {
         }
     }
 
-    private void setLine(String ln, int inputIndex) {
+    private void setLine(CharSequence ln, int inputIndex) {
         lineIndex++;
         index = 0;
         column = 0;
         columnIsInTab = false;
 
-        String lineContent = prepareLine(ln);
+        limits.checkLineLength(ln.length());
+        CharSequence lineContent = prepareLine(ln);
         SourceSpan sourceSpan = null;
         if (includeSourceSpans != IncludeSourceSpans.NONE) {
             sourceSpan = SourceSpan.of(lineIndex, 0, inputIndex, lineContent.length());
@@ -461,8 +592,9 @@ public class DocumentParser implements ParserState {
     }
 
     private BlockStartImpl findBlockStart(BlockParser blockParser) {
-        MatchedBlockParser matchedBlockParser = new MatchedBlockParserImpl(blockParser);
-        for (BlockParserFactory blockParserFactory : blockParserFactories) {
+        matchedBlockParser.matchedBlockParser = blockParser;
+        char c = line.getContent().charAt(nextNonSpace);
+        for (BlockParserFactory blockParserFactory : blockParserFactories.getFactories(c)) {
             BlockStart result = blockParserFactory.tryStart(this, matchedBlockParser);
             if (result instanceof BlockStartImpl) {
                 return (BlockStartImpl) result;
@@ -472,14 +604,105 @@ public class DocumentParser implements ParserState {
     }
 
     /**
-     * Walk through a block & children recursively, parsing string content into inline content where appropriate.
+     * Check the stop condition for the top-level blocks that were closed since the last check. Called at the start of
+     * each line. If it stops, blocks after the matching one are discarded, as if the input had ended after it. (A block
+     * is only closed by a following line, which might already have started another block.) Definitions in discarded
+     * blocks are not used for the kept ones.
      */
-    private void processInlines() {
-        var context = new InlineParserContextImpl(inlineContentParserFactories, delimiterProcessors, linkProcessors, linkMarkers, definitions);
-        var inlineParser = inlineParserFactory.create(context);
+    private boolean shouldStop(int inputIndex) {
+        Node openBlock = openBlockParsers.size() > 1 ? openBlockParsers.get(1).blockParser.getBlock() : null;
+        Node block = lastCheckedBlock != null ? lastCheckedBlock.getNext() : getDocument().getFirstChild();
+        while (block != null && block != openBlock) {
+            lastCheckedBlock = block;
+            if (stopCondition.shouldStop((Block) block, checkedBlocks++, inputIndex)) {
+                // Not finalized, so the definitions of the open blocks are not added
+                while (openBlockParsers.size() > 1) {
+                    deactivateBlockParser();
+                }
+                while (block.getNext() != null) {
+                    block.getNext().unlink();
+                }
+                // Closed blocks after the matching one can already have added definitions, e.g. the ones of a
+                // paragraph that starts with definitions (which become separate top-level blocks)
+                definitions.removeDetached(getDocument());
+                return true;
+            }
+            block = block.getNext();
+        }
+        return false;
+    }
 
-        for (var blockParser : allBlockParsers) {
-            blockParser.parseInlines(inlineParser);
+    /**
+     * Parse the inline content of the blocks closed since the last call, using the specified definitions. Depending on
+     * the options, the inlines are parsed lazily on first access, in parallel, or one block after another.
+     */
+    private void processInlines(Definitions definitions) {
+        if (lazyInlineParsing && blockConsumer == null) {
+            // When streaming blocks, the consumer gets them before the definitions are complete. As the result
+            // shouldn't depend on when a block is accessed, we don't use lazy parsing there.
+            var lazyInlines = new LazyInlines(inlineParserFactory, createInlineParserContext(definitions, null));
+            for (var blockParser : allBlockParsers) {
+                PendingInlines.defer(blockParser.getBlock(), () -> lazyInlines.parse(blockParser));
+            }
+        } else if (inlineParsingPool != null && allBlockParsers.size() >= parallelInlineParsingThreshold) {
+            processInlinesInParallel(createInlineParserContext(definitions, cancellation));
+        } else {
+            if (inlineParser == null) {
+                inlineParserContext = createInlineParserContext(definitions, cancellation);
+                inlineParser = inlineParserFactory.create(inlineParserContext);
+            } else {
+                inlineParserContext.setDocument(definitions, nodeCounter, cancellation);
+            }
+            for (var blockParser : allBlockParsers) {
+                blockParser.parseInlines(inlineParser);
+            }
+        }
+        allBlockParsers.clear();
+    }
+
+    private InlineParserContextImpl createInlineParserContext(Definitions definitions, Cancellation cancellation) {
+        return new InlineParserContextImpl(inlineContentParserFactories, delimiterProcessors, linkProcessors, linkMarkers,
+                lazyTextLiterals, definitions, limits, nodeCounter, cancellation);
+    }
+
+    /**
+     * Parse inlines using one task (and inline parser) per worker of the pool. The definitions are complete at this
+     * point and each block only modifies its own nodes, so the blocks can be processed in any order. The tasks take
+     * the next block from a shared index, which keeps the workers busy even if some blocks are much larger than others.
+     */
+    private void processInlinesInParallel(InlineParserContextImpl context) {
+        var blockParsers = allBlockParsers;
+        var nextIndex = new AtomicInteger();
+        int taskCount = Math.min(inlineParsingPool.getParallelism(), blockParsers.size());
+        var tasks = new ArrayList<ForkJoinTask<?>>(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            tasks.add(inlineParsingPool.submit(() -> {
+                var parser = inlineParserFactory.create(context);
+                int index;
+                while ((index = nextIndex.getAndIncrement()) < blockParsers.size()) {
+                    blockParsers.get(index).parseInlines(parser);
+                }
+            }));
+        }
+        for (var task : tasks) {
+            task.join();
+        }
+    }
+
+    /**
+     * Pass the children of the document to the block consumer. Only call this when all of them are closed.
+     */
+    private void emitBlocks() {
+        // All block parsers that were closed since the last call belong to these blocks, so we can parse their inlines
+        processInlines(definitions);
+
+        // Usually this is a single block, but e.g. a closed paragraph can also add link reference definitions
+        Node node = documentBlockParser.getBlock().getFirstChild();
+        while (node != null) {
+            Node next = node.getNext();
+            node.unlink();
+            blockConsumer.accept(node);
+            node = next;
         }
     }
 
@@ -494,6 +717,7 @@ public class DocumentParser implements ParserState {
 
         getActiveBlockParser().getBlock().appendChild(openBlockParser.blockParser.getBlock());
         activateBlockParser(openBlockParser);
+        nodeCounter.add(1);
     }
 
     private void activateBlockParser(OpenBlockParser openBlockParser) {
@@ -524,8 +748,31 @@ public class DocumentParser implements ParserState {
     }
 
     private Document finalizeAndProcess() {
+        return finalizeAndProcess(definitions);
+    }
+
+    /**
+     * Close all blocks without parsing inlines yet, e.g. to check for definitions first.
+     */
+    /**
+     * Change the counter for the nodes added from now on, e.g. when the input is only a part of the document, see
+     * {@link #parseRange}.
+     */
+    public void setNodeCounter(ParseLimits.NodeCounter nodeCounter) {
+        this.nodeCounter = nodeCounter;
+    }
+
+    public void closeBlocks() {
         closeBlockParsers(openBlockParsers.size());
-        processInlines();
+    }
+
+    /**
+     * Close all blocks and parse inlines using the specified definitions. This is for when the parsed input is only a
+     * part of the document, see {@link #parseRange}.
+     */
+    public Document finalizeAndProcess(Definitions definitions) {
+        closeBlockParsers(openBlockParsers.size());
+        processInlines(definitions);
         return documentBlockParser.getBlock();
     }
 
@@ -537,6 +784,11 @@ public class DocumentParser implements ParserState {
             // separate interface (e.g. BlockParserWithInlines) so that we only have to remember those that actually
             // have inlines to parse.
             allBlockParsers.add(blockParser);
+
+            if (blockConsumer != null && openBlockParsers.size() == 1) {
+                // Closed a top-level block, only the document is still open
+                emitBlocks();
+            }
         }
     }
 
@@ -558,21 +810,18 @@ public class DocumentParser implements ParserState {
     /**
      * Prepares the input line replacing {@code \0}
      */
-    private static String prepareLine(String line) {
-        if (line.indexOf('\0') == -1) {
+    private static CharSequence prepareLine(CharSequence line) {
+        if (Characters.find('\0', line, 0) == -1) {
             return line;
         } else {
-            return line.replace('\0', '\uFFFD');
+            return line.toString().replace('\0', '\uFFFD');
         }
     }
 
     private static class MatchedBlockParserImpl implements MatchedBlockParser {
 
-        private final BlockParser matchedBlockParser;
-
-        public MatchedBlockParserImpl(BlockParser matchedBlockParser) {
-            this.matchedBlockParser = matchedBlockParser;
-        }
+        // Set for each line, so that we don't need a new instance every time
+        private BlockParser matchedBlockParser;
 
         @Override
         public BlockParser getMatchedBlockParser() {
@@ -589,6 +838,29 @@ public class DocumentParser implements ParserState {
         }
     }
 
+    /**
+     * Parses inlines of blocks when they are first accessed, see {@link PendingInlines}. That can happen
+     * from multiple threads, so the blocks are parsed one at a time, sharing one inline parser.
+     */
+    private static class LazyInlines {
+
+        private final InlineParserFactory inlineParserFactory;
+        private final InlineParserContextImpl context;
+        private InlineParser inlineParser;
+
+        LazyInlines(InlineParserFactory inlineParserFactory, InlineParserContextImpl context) {
+            this.inlineParserFactory = inlineParserFactory;
+            this.context = context;
+        }
+
+        synchronized void parse(BlockParser blockParser) {
+            if (inlineParser == null) {
+                inlineParser = inlineParserFactory.create(context);
+            }
+            blockParser.parseInlines(inlineParser);
+        }
+    }
+
     private static class OpenBlockParser {
         private final BlockParser blockParser;
         private int sourceIndex;
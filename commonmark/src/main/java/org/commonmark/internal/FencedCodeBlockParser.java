@@ -9,6 +9,8 @@ import org.commonmark.text.Characters;
 
 import static org.commonmark.internal.util.Escaping.unescapeString;
 
+import java.util.Set;
+
 public class FencedCodeBlockParser extends AbstractBlockParser {
 
     private final FencedCodeBlock block = new FencedCodeBlock();
@@ -70,6 +72,11 @@ public class FencedCodeBlockParser extends AbstractBlockParser {
 
     public static class Factory extends AbstractBlockParserFactory {
 
+        @Override
+        public Set<Character> getTriggerCharacters() {
+            return Set.of('`', '~');
+        }
+
         @Override
         public BlockStart tryStart(ParserState state, MatchedBlockParser matchedBlockParser) {
             int indent = state.getIndent();
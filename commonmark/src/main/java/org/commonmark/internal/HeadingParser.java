@@ -11,6 +11,8 @@ import org.commonmark.parser.beta.Scanner;
 import org.commonmark.parser.block.*;
 import org.commonmark.text.Characters;
 
+import java.util.Set;
+
 public class HeadingParser extends AbstractBlockParser {
 
     private final Heading block = new Heading();
@@ -39,6 +41,11 @@ public class HeadingParser extends AbstractBlockParser {
 
     public static class Factory extends AbstractBlockParserFactory {
 
+        @Override
+        public Set<Character> getTriggerCharacters() {
+            return Set.of('#', '=', '-');
+        }
+
         @Override
         public BlockStart tryStart(ParserState state, MatchedBlockParser matchedBlockParser) {
             if (state.getIndent() >= Parsing.CODE_BLOCK_INDENT) {
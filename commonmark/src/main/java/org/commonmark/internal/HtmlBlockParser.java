@@ -6,6 +6,7 @@ import org.commonmark.node.Paragraph;
 import org.commonmark.parser.SourceLine;
 import org.commonmark.parser.block.*;
 
+import java.util.Set;
 import java.util.regex.Pattern;
 
 public class HtmlBlockParser extends AbstractBlockParser {
@@ -119,6 +120,11 @@ public class HtmlBlockParser extends AbstractBlockParser {
 
     public static class Factory extends AbstractBlockParserFactory {
 
+        @Override
+        public Set<Character> getTriggerCharacters() {
+            return Set.of('<');
+        }
+
         @Override
         public BlockStart tryStart(ParserState state, MatchedBlockParser matchedBlockParser) {
             int nextNonSpace = state.getNextNonSpaceIndex();
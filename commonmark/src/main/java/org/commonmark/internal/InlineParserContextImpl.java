@@ -1,5 +1,6 @@
 package org.commonmark.internal;
 
+import org.commonmark.Cancellation;
 import org.commonmark.node.LinkReferenceDefinition;
 import org.commonmark.parser.InlineParserContext;
 import org.commonmark.parser.beta.LinkProcessor;
@@ -12,21 +13,63 @@ import java.util.Set;
 public class InlineParserContextImpl implements InlineParserContext {
 
     private final List<InlineContentParserFactory> inlineContentParserFactories;
-    private final List<DelimiterProcessor> delimiterProcessors;
+    private final DelimiterProcessorTable delimiterProcessors;
     private final List<LinkProcessor> linkProcessors;
     private final Set<Character> linkMarkers;
-    private final Definitions definitions;
+    private final boolean lazyTextLiterals;
+    private final ParseLimits limits;
+    private Definitions definitions;
+    private ParseLimits.NodeCounter nodeCounter;
+    private Cancellation cancellation;
 
     public InlineParserContextImpl(List<InlineContentParserFactory> inlineContentParserFactories,
-                                   List<DelimiterProcessor> delimiterProcessors,
+                                   DelimiterProcessorTable delimiterProcessors,
                                    List<LinkProcessor> linkProcessors,
                                    Set<Character> linkMarkers,
-                                   Definitions definitions) {
+                                   boolean lazyTextLiterals,
+                                   Definitions definitions,
+                                   ParseLimits limits,
+                                   ParseLimits.NodeCounter nodeCounter,
+                                   Cancellation cancellation) {
         this.inlineContentParserFactories = inlineContentParserFactories;
         this.delimiterProcessors = delimiterProcessors;
         this.linkProcessors = linkProcessors;
         this.linkMarkers = linkMarkers;
+        this.lazyTextLiterals = lazyTextLiterals;
         this.definitions = definitions;
+        this.limits = limits;
+        this.nodeCounter = nodeCounter;
+        this.cancellation = cancellation;
+    }
+
+    /**
+     * Change the definitions, node counter and cancellation token, so that an inline parser created with this context
+     * can be used for another document.
+     */
+    public void setDocument(Definitions definitions, ParseLimits.NodeCounter nodeCounter, Cancellation cancellation) {
+        this.definitions = definitions;
+        this.nodeCounter = nodeCounter;
+        this.cancellation = cancellation;
+    }
+
+    public DelimiterProcessorTable getDelimiterProcessorTable() {
+        return delimiterProcessors;
+    }
+
+    public boolean isLazyTextLiterals() {
+        return lazyTextLiterals;
+    }
+
+    public ParseLimits getLimits() {
+        return limits;
+    }
+
+    public ParseLimits.NodeCounter getNodeCounter() {
+        return nodeCounter;
+    }
+
+    public Cancellation getCancellation() {
+        return cancellation;
     }
 
     @Override
@@ -36,7 +79,7 @@ public class InlineParserContextImpl implements InlineParserContext {
 
     @Override
     public List<DelimiterProcessor> getCustomDelimiterProcessors() {
-        return delimiterProcessors;
+        return delimiterProcessors.getCustomProcessors();
     }
 
     @Override
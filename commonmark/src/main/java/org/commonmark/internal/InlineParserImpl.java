@@ -1,6 +1,8 @@
 package org.commonmark.internal;
 
 import org.commonmark.internal.inline.*;
+import org.commonmark.internal.util.CharSequences;
+import org.commonmark.internal.util.CharacterSet;
 import org.commonmark.internal.util.Escaping;
 import org.commonmark.internal.util.LinkScanner;
 import org.commonmark.node.*;
@@ -16,36 +18,80 @@ import java.util.*;
 
 public class InlineParserImpl implements InlineParser, InlineParserState {
 
+    /**
+     * Mask for how often to check for cancellation, in iterations of the main loop.
+     */
+    private static final int CANCELLATION_CHECK_INTERVAL = 0xFF;
+
+    /**
+     * Number of closer classes per delimiter character for {@link #openersBottom}: whether the closer can open, times
+     * its original length modulo 3.
+     */
+    private static final int CLOSER_CLASSES = 6;
+
     private final InlineParserContext context;
+    private final InlineParserContextImpl contextImpl;
     private final List<InlineContentParserFactory> inlineContentParserFactories;
-    private final Map<Character, DelimiterProcessor> delimiterProcessors;
+    private final DelimiterProcessorTable delimiterProcessors;
     private final List<LinkProcessor> linkProcessors;
-    private final BitSet specialCharacters;
+    private final CharacterSet specialCharacters;
     private final BitSet linkMarkers;
 
-    private Map<Character, List<InlineContentParser>> inlineParsers;
+    // Indexes in inlineContentParserFactories by trigger character
+    private final Map<Character, int[]> inlineContentParserFactoriesByChar;
+    // Created on first use, and kept for the next blocks if they can be reset
+    private final InlineContentParser[] inlineContentParsers;
+    private final ParseLimits limits;
+    private final int maxStackDepth;
+    private final boolean lazyTextLiterals;
     private Scanner scanner;
     private boolean includeSourceSpans;
     private int trailingSpaces;
+    // Number of nodes appended to the block, for the node limit
+    private int nodeCount;
+    // Reused for merging text nodes
+    private final StringBuilder mergeBuilder = new StringBuilder();
+
+    /**
+     * Lower bounds for the search for openers when processing delimiters, by delimiter character index and closer
+     * class. An entry is only set for the current call if its generation matches, so the arrays don't need clearing.
+     */
+    private final Delimiter[] openersBottom;
+    private final int[] openersBottomGenerations;
+    private int openersBottomGeneration;
 
     /**
      * Top delimiter (emphasis, strong emphasis or custom emphasis). (Brackets are on a separate stack, different
      * from the algorithm described in the spec.)
      */
     private Delimiter lastDelimiter;
+    private int delimiterCount;
 
     /**
      * Top opening bracket (<code>[</code> or <code>![)</code>).
      */
     private Bracket lastBracket;
+    private int bracketCount;
 
     public InlineParserImpl(InlineParserContext context) {
         this.context = context;
+        // The options that aren't part of the public context are only available with the built-in one, custom contexts
+        // get no limits
+        this.contextImpl = context instanceof InlineParserContextImpl ? (InlineParserContextImpl) context : null;
         this.inlineContentParserFactories = calculateInlineContentParserFactories(context.getCustomInlineContentParserFactories());
-        this.delimiterProcessors = calculateDelimiterProcessors(context.getCustomDelimiterProcessors());
+        this.delimiterProcessors = contextImpl != null ? contextImpl.getDelimiterProcessorTable() :
+                new DelimiterProcessorTable(context.getCustomDelimiterProcessors());
         this.linkProcessors = calculateLinkProcessors(context.getCustomLinkProcessors());
         this.linkMarkers = calculateLinkMarkers(context.getCustomLinkMarkers());
-        this.specialCharacters = calculateSpecialCharacters(linkMarkers, this.delimiterProcessors.keySet(), this.inlineContentParserFactories);
+        this.specialCharacters = CharacterSet.of(calculateSpecialCharacters(linkMarkers,
+                this.delimiterProcessors, this.inlineContentParserFactories));
+        this.inlineContentParserFactoriesByChar = calculateInlineContentParserFactoriesByChar(this.inlineContentParserFactories);
+        this.inlineContentParsers = new InlineContentParser[this.inlineContentParserFactories.size()];
+        this.limits = contextImpl != null ? contextImpl.getLimits() : ParseLimits.NONE;
+        this.maxStackDepth = limits.getMaxInlineStackDepth();
+        this.lazyTextLiterals = contextImpl != null && contextImpl.isLazyTextLiterals();
+        this.openersBottom = new Delimiter[delimiterProcessors.size() * CLOSER_CLASSES];
+        this.openersBottomGenerations = new int[openersBottom.length];
     }
 
     private List<InlineContentParserFactory> calculateInlineContentParserFactories(List<InlineContentParserFactory> customFactories) {
@@ -66,46 +112,6 @@ public class InlineParserImpl implements InlineParser, InlineParserState {
         return list;
     }
 
-    private static Map<Character, DelimiterProcessor> calculateDelimiterProcessors(List<DelimiterProcessor> delimiterProcessors) {
-        var map = new HashMap<Character, DelimiterProcessor>();
-        addDelimiterProcessors(List.of(new AsteriskDelimiterProcessor(), new UnderscoreDelimiterProcessor()), map);
-        addDelimiterProcessors(delimiterProcessors, map);
-        return map;
-    }
-
-    private static void addDelimiterProcessors(Iterable<DelimiterProcessor> delimiterProcessors, Map<Character, DelimiterProcessor> map) {
-        for (DelimiterProcessor delimiterProcessor : delimiterProcessors) {
-            char opening = delimiterProcessor.getOpeningCharacter();
-            char closing = delimiterProcessor.getClosingCharacter();
-            if (opening == closing) {
-                DelimiterProcessor old = map.get(opening);
-                if (old != null && old.getOpeningCharacter() == old.getClosingCharacter()) {
-                    StaggeredDelimiterProcessor s;
-                    if (old instanceof StaggeredDelimiterProcessor) {
-                        s = (StaggeredDelimiterProcessor) old;
-                    } else {
-                        s = new StaggeredDelimiterProcessor(opening);
-                        s.add(old);
-                    }
-                    s.add(delimiterProcessor);
-                    map.put(opening, s);
-                } else {
-                    addDelimiterProcessorForChar(opening, delimiterProcessor, map);
-                }
-            } else {
-                addDelimiterProcessorForChar(opening, delimiterProcessor, map);
-                addDelimiterProcessorForChar(closing, delimiterProcessor, map);
-            }
-        }
-    }
-
-    private static void addDelimiterProcessorForChar(char delimiterChar, DelimiterProcessor toAdd, Map<Character, DelimiterProcessor> delimiterProcessors) {
-        DelimiterProcessor existing = delimiterProcessors.put(delimiterChar, toAdd);
-        if (existing != null) {
-            throw new IllegalArgumentException("Delimiter processor conflict with delimiter char '" + delimiterChar + "'");
-        }
-    }
-
     private static BitSet calculateLinkMarkers(Set<Character> linkMarkers) {
         var bitSet = new BitSet();
         for (var c : linkMarkers) {
@@ -116,11 +122,11 @@ public class InlineParserImpl implements InlineParser, InlineParserState {
     }
 
     private static BitSet calculateSpecialCharacters(BitSet linkMarkers,
-                                                     Set<Character> delimiterCharacters,
+                                                     DelimiterProcessorTable delimiterProcessors,
                                                      List<InlineContentParserFactory> inlineContentParserFactories) {
         BitSet bitSet = (BitSet) linkMarkers.clone();
-        for (Character c : delimiterCharacters) {
-            bitSet.set(c);
+        for (int i = 0; i < delimiterProcessors.size(); i++) {
+            bitSet.set(delimiterProcessors.getCharacter(i));
         }
         for (var factory : inlineContentParserFactories) {
             for (var c : factory.getTriggerCharacters()) {
@@ -134,14 +140,18 @@ public class InlineParserImpl implements InlineParser, InlineParserState {
         return bitSet;
     }
 
-    private Map<Character, List<InlineContentParser>> createInlineContentParsers() {
-        var map = new HashMap<Character, List<InlineContentParser>>();
-        for (var factory : inlineContentParserFactories) {
-            var parser = factory.create();
-            for (var c : factory.getTriggerCharacters()) {
-                map.computeIfAbsent(c, k -> new ArrayList<>()).add(parser);
+    private static Map<Character, int[]> calculateInlineContentParserFactoriesByChar(
+            List<InlineContentParserFactory> inlineContentParserFactories) {
+        var lists = new HashMap<Character, List<Integer>>();
+        for (int i = 0; i < inlineContentParserFactories.size(); i++) {
+            for (var c : inlineContentParserFactories.get(i).getTriggerCharacters()) {
+                lists.computeIfAbsent(c, k -> new ArrayList<>()).add(i);
             }
         }
+        var map = new HashMap<Character, int[]>();
+        for (var entry : lists.entrySet()) {
+            map.put(entry.getKey(), entry.getValue().stream().mapToInt(Integer::intValue).toArray());
+        }
         return map;
     }
 
@@ -157,15 +167,25 @@ public class InlineParserImpl implements InlineParser, InlineParserState {
     public void parse(SourceLines lines, Node block) {
         reset(lines);
 
+        // Count locally and only update the (shared) counter of the document at the end or when over the limit
+        var nodeCounter = contextImpl != null ? contextImpl.getNodeCounter() : null;
+        long remainingNodes = nodeCounter != null ? nodeCounter.getRemaining() : Long.MAX_VALUE;
+        var cancellation = contextImpl != null ? contextImpl.getCancellation() : null;
+        int iterations = 0;
         while (true) {
-            var nodes = parseInline();
-            if (nodes == null) {
+            if (cancellation != null && (++iterations & CANCELLATION_CHECK_INTERVAL) == 0) {
+                cancellation.throwIfCancelled();
+            }
+            if (!parseInline(block)) {
                 break;
             }
-            for (Node node : nodes) {
-                block.appendChild(node);
+            if (nodeCount > remainingNodes) {
+                nodeCounter.add(nodeCount);
             }
         }
+        if (nodeCounter != null) {
+            nodeCounter.add(nodeCount);
+        }
 
         processDelimiters(null);
         mergeChildTextNodes(block);
@@ -175,64 +195,89 @@ public class InlineParserImpl implements InlineParser, InlineParserState {
         this.scanner = Scanner.of(lines);
         this.includeSourceSpans = !lines.getSourceSpans().isEmpty();
         this.trailingSpaces = 0;
+        this.nodeCount = 0;
         this.lastDelimiter = null;
+        this.delimiterCount = 0;
         this.lastBracket = null;
-        this.inlineParsers = createInlineContentParsers();
+        this.bracketCount = 0;
+        // Parsers are created when their trigger character is first encountered, so there's no cost for the (usual)
+        // case of content not containing any of them. Parsers that can't be reset are created again for this content.
+        for (int i = 0; i < inlineContentParsers.length; i++) {
+            InlineContentParser inlineParser = inlineContentParsers[i];
+            if (inlineParser != null && !inlineParser.reset()) {
+                inlineContentParsers[i] = null;
+            }
+        }
+    }
+
+    private CharSequence content(Position begin, Position end) {
+        return lazyTextLiterals ? scanner.getContentView(begin, end) : scanner.getContent(begin, end);
     }
 
-    private Text text(SourceLines sourceLines) {
-        Text text = new Text(sourceLines.getContent());
-        text.setSourceSpans(sourceLines.getSourceSpans());
+    private Text text(Position begin, Position end) {
+        Text text = Text.ofSequence(content(begin, end));
+        if (includeSourceSpans) {
+            text.setSourceSpans(scanner.getSource(begin, end).getSourceSpans());
+        }
         return text;
     }
 
     /**
-     * Parse the next inline element in subject, advancing our position.
-     * On success, return the new inline node.
-     * On failure, return null.
+     * Parse the next inline element in subject, advancing our position, and append the resulting nodes to the block.
+     *
+     * @return false if the end was reached, true otherwise
      */
-    private List<? extends Node> parseInline() {
+    private boolean parseInline(Node block) {
         char c = scanner.peek();
 
         switch (c) {
             case '[':
-                return List.of(parseOpenBracket());
+                append(block, parseOpenBracket());
+                return true;
             case ']':
-                return List.of(parseCloseBracket());
+                append(block, parseCloseBracket());
+                return true;
             case '\n':
-                return List.of(parseLineBreak());
+                append(block, parseLineBreak());
+                return true;
             case Scanner.END:
-                return null;
+                return false;
         }
 
         if (linkMarkers.get(c)) {
             var markerPosition = scanner.position();
-            var nodes = parseLinkMarker();
-            if (nodes != null) {
-                return nodes;
+            if (parseLinkMarker(block)) {
+                return true;
             }
             // Reset and try other things (e.g. inline parsers below)
             scanner.setPosition(markerPosition);
         }
 
         // No inline parser, delimiter or other special handling.
-        if (!specialCharacters.get(c)) {
-            return List.of(parseText());
+        if (!specialCharacters.matches(c)) {
+            append(block, parseText());
+            return true;
         }
 
-        List<InlineContentParser> inlineParsers = this.inlineParsers.get(c);
-        if (inlineParsers != null) {
+        int[] factoryIndexes = inlineContentParserFactoriesByChar.get(c);
+        if (factoryIndexes != null) {
             Position position = scanner.position();
-            for (InlineContentParser inlineParser : inlineParsers) {
+            for (int factoryIndex : factoryIndexes) {
+                InlineContentParser inlineParser = inlineContentParsers[factoryIndex];
+                if (inlineParser == null) {
+                    inlineParser = inlineContentParserFactories.get(factoryIndex).create();
+                    inlineContentParsers[factoryIndex] = inlineParser;
+                }
                 ParsedInline parsedInline = inlineParser.tryParse(this);
                 if (parsedInline instanceof ParsedInlineImpl) {
                     ParsedInlineImpl parsedInlineImpl = (ParsedInlineImpl) parsedInline;
                     Node node = parsedInlineImpl.getNode();
                     scanner.setPosition(parsedInlineImpl.getPosition());
-                    if (includeSourceSpans && node.getSourceSpans().isEmpty()) {
+                    if (includeSourceSpans && node.getSourceSpanCount() == 0) {
                         node.setSourceSpans(scanner.getSource(position, scanner.position()).getSourceSpans());
                     }
-                    return List.of(node);
+                    append(block, node);
+                    return true;
                 } else {
                     // Reset position
                     scanner.setPosition(position);
@@ -241,24 +286,31 @@ public class InlineParserImpl implements InlineParser, InlineParserState {
         }
 
         DelimiterProcessor delimiterProcessor = delimiterProcessors.get(c);
-        if (delimiterProcessor != null) {
-            List<? extends Node> nodes = parseDelimiters(delimiterProcessor, c);
-            if (nodes != null) {
-                return nodes;
+        if (delimiterProcessor != null && delimiterCount < maxStackDepth) {
+            if (parseDelimiters(block, delimiterProcessor, c)) {
+                return true;
             }
         }
 
         // If we get here, even for a special/delimiter character, we will just treat it as text.
-        return List.of(parseText());
+        append(block, parseText());
+        return true;
+    }
+
+    private void append(Node block, Node node) {
+        block.appendChild(node);
+        nodeCount++;
     }
 
     /**
      * Attempt to parse delimiters like emphasis, strong emphasis or custom delimiters.
+     *
+     * @return true if delimiters were parsed and appended to the block
      */
-    private List<? extends Node> parseDelimiters(DelimiterProcessor delimiterProcessor, char delimiterChar) {
+    private boolean parseDelimiters(Node block, DelimiterProcessor delimiterProcessor, char delimiterChar) {
         DelimiterData res = scanDelimiters(delimiterProcessor, delimiterChar);
         if (res == null) {
-            return null;
+            return false;
         }
 
         List<Text> characters = res.characters;
@@ -268,8 +320,12 @@ public class InlineParserImpl implements InlineParser, InlineParserState {
         if (lastDelimiter.previous != null) {
             lastDelimiter.previous.next = lastDelimiter;
         }
+        delimiterCount++;
 
-        return characters;
+        for (Text character : characters) {
+            append(block, character);
+        }
+        return true;
     }
 
     /**
@@ -280,7 +336,11 @@ public class InlineParserImpl implements InlineParser, InlineParserState {
         scanner.next();
         Position contentPosition = scanner.position();
 
-        Text node = text(scanner.getSource(start, contentPosition));
+        Text node = text(start, contentPosition);
+        if (bracketCount >= maxStackDepth) {
+            // Too many open brackets, treat as text
+            return node;
+        }
 
         // Add entry to stack for this opener
         addBracket(Bracket.link(node, start, contentPosition, lastBracket, lastDelimiter));
@@ -289,23 +349,28 @@ public class InlineParserImpl implements InlineParser, InlineParserState {
     }
 
     /**
-     * If next character is {@code [}, add a bracket to the stack.
-     * Otherwise, return null.
+     * If next character is {@code [}, add a bracket to the stack and append the marker and bracket to the block.
+     * Otherwise, return false.
      */
-    private List<? extends Node> parseLinkMarker() {
+    private boolean parseLinkMarker(Node block) {
+        if (bracketCount >= maxStackDepth) {
+            return false;
+        }
         var markerPosition = scanner.position();
         scanner.next();
         var bracketPosition = scanner.position();
         if (scanner.next('[')) {
             var contentPosition = scanner.position();
-            var bangNode = text(scanner.getSource(markerPosition, bracketPosition));
-            var bracketNode = text(scanner.getSource(bracketPosition, contentPosition));
+            var bangNode = text(markerPosition, bracketPosition);
+            var bracketNode = text(bracketPosition, contentPosition);
 
             // Add entry to stack for this opener
             addBracket(Bracket.withMarker(bangNode, markerPosition, bracketNode, bracketPosition, contentPosition, lastBracket, lastDelimiter));
-            return List.of(bangNode, bracketNode);
+            append(block, bangNode);
+            append(block, bracketNode);
+            return true;
         } else {
-            return null;
+            return false;
         }
     }
 
@@ -322,13 +387,13 @@ public class InlineParserImpl implements InlineParser, InlineParserState {
         Bracket opener = lastBracket;
         if (opener == null) {
             // No matching opener, just return a literal.
-            return text(scanner.getSource(beforeClose, afterClose));
+            return text(beforeClose, afterClose);
         }
 
         if (!opener.allowed) {
             // Matching opener, but it's not allowed, just return a literal.
             removeLastBracket();
-            return text(scanner.getSource(beforeClose, afterClose));
+            return text(beforeClose, afterClose);
         }
 
         var linkOrImage = parseLinkOrImage(opener, beforeClose);
@@ -339,7 +404,7 @@ public class InlineParserImpl implements InlineParser, InlineParserState {
 
         // Nothing parsed, just parse the bracket as text and continue
         removeLastBracket();
-        return text(scanner.getSource(beforeClose, afterClose));
+        return text(beforeClose, afterClose);
     }
 
     private Node parseLinkOrImage(Bracket opener, Position beforeClose) {
@@ -383,14 +448,13 @@ public class InlineParserImpl implements InlineParser, InlineParserState {
         //   - Collapsed: `[foo][]`    (foo is both the text and label)
         //   - Shortcut:  `[foo]`      (foo is both the text and label)
 
-        String text = scanner.getSource(opener.contentPosition, beforeClose).getContent();
-
         // Starting position is after the closing `]`
         Position afterClose = scanner.position();
 
         // Maybe an inline link/image
         var destinationTitle = parseInlineDestinationTitle(scanner);
         if (destinationTitle != null) {
+            String text = scanner.getContent(opener.contentPosition, beforeClose);
             return new LinkInfoImpl(opener.markerNode, opener.bracketNode, text, null, destinationTitle.destination, destinationTitle.title, afterClose);
         }
         // Not an inline link/image, rewind back to after `]`.
@@ -413,6 +477,8 @@ public class InlineParserImpl implements InlineParser, InlineParserState {
             return null;
         }
 
+        // Only get the text now, as it's as long as everything since the opener (e.g. with nested brackets)
+        String text = scanner.getContent(opener.contentPosition, beforeClose);
         return new LinkInfoImpl(opener.markerNode, opener.bracketNode, text, label, null, null, afterClose);
     }
 
@@ -485,16 +551,22 @@ public class InlineParserImpl implements InlineParser, InlineParserState {
             lastBracket.bracketAfter = true;
         }
         lastBracket = bracket;
+        bracketCount++;
     }
 
     private void removeLastBracket() {
         lastBracket = lastBracket.previous;
+        bracketCount--;
     }
 
     private void disallowPreviousLinks() {
         Bracket bracket = lastBracket;
         while (bracket != null) {
             if (bracket.markerNode == null) {
+                if (!bracket.allowed) {
+                    // This was disallowed by a previous link, together with all link openers before it
+                    break;
+                }
                 // Disallow link opener. It will still get matched, but will not result in a link.
                 bracket.allowed = false;
             }
@@ -544,10 +616,10 @@ public class InlineParserImpl implements InlineParser, InlineParserState {
         String dest;
         if (delimiter == '<') {
             // chop off surrounding <..>:
-            String rawDestination = scanner.getSource(start, scanner.position()).getContent();
+            String rawDestination = scanner.getContent(start, scanner.position());
             dest = rawDestination.substring(1, rawDestination.length() - 1);
         } else {
-            dest = scanner.getSource(start, scanner.position()).getContent();
+            dest = scanner.getContent(start, scanner.position());
         }
 
         return Escaping.unescapeString(dest);
@@ -563,7 +635,7 @@ public class InlineParserImpl implements InlineParser, InlineParserState {
         }
 
         // chop off ', " or parens
-        String rawTitle = scanner.getSource(start, scanner.position()).getContent();
+        String rawTitle = scanner.getContent(start, scanner.position());
         String title = rawTitle.substring(1, rawTitle.length() - 1);
         return Escaping.unescapeString(title);
     }
@@ -586,7 +658,7 @@ public class InlineParserImpl implements InlineParser, InlineParserState {
             return null;
         }
 
-        String content = scanner.getSource(start, end).getContent();
+        String content = scanner.getContent(start, end);
         // spec: A link label can have at most 999 characters inside the square brackets.
         if (content.length() > 999) {
             return null;
@@ -611,31 +683,28 @@ public class InlineParserImpl implements InlineParser, InlineParserState {
     private Node parseText() {
         Position start = scanner.position();
         scanner.next();
-        char c;
-        while (true) {
-            c = scanner.peek();
-            if (c == Scanner.END || specialCharacters.get(c)) {
-                break;
-            }
-            scanner.next();
-        }
+        // Newlines are special characters, so this stops at the end of the line at the latest
+        scanner.skipUntil(specialCharacters);
+        char c = scanner.peek();
 
-        SourceLines source = scanner.getSource(start, scanner.position());
-        String content = source.getContent();
+        Position position = scanner.position();
+        CharSequence content = content(start, position);
 
         if (c == '\n') {
             // We parsed until the end of the line. Trim any trailing spaces and remember them (for hard line breaks).
             int end = Characters.skipBackwards(' ', content, content.length() - 1, 0) + 1;
             trailingSpaces = content.length() - end;
-            content = content.substring(0, end);
+            content = content.subSequence(0, end);
         } else if (c == Scanner.END) {
             // For the last line, both tabs and spaces are trimmed for some reason (checked with commonmark.js).
             int end = Characters.skipSpaceTabBackwards(content, content.length() - 1, 0) + 1;
-            content = content.substring(0, end);
+            content = content.subSequence(0, end);
         }
 
-        Text text = new Text(content);
-        text.setSourceSpans(source.getSourceSpans());
+        Text text = Text.ofSequence(content);
+        if (includeSourceSpans) {
+            text.setSourceSpans(scanner.getSource(start, position).getSourceSpans());
+        }
         return text;
     }
 
@@ -661,7 +730,7 @@ public class InlineParserImpl implements InlineParser, InlineParserState {
         scanner.setPosition(start);
         Position positionBefore = start;
         while (scanner.next(delimiterChar)) {
-            delimiters.add(text(scanner.getSource(positionBefore, scanner.position())));
+            delimiters.add(text(positionBefore, scanner.position()));
             positionBefore = scanner.position();
         }
 
@@ -691,8 +760,13 @@ public class InlineParserImpl implements InlineParser, InlineParserState {
     }
 
     private void processDelimiters(Delimiter stackBottom) {
+        if (lastDelimiter == stackBottom) {
+            // Nothing to process, e.g. a link without delimiters in its text. Without this, finding the first closer
+            // below would walk the whole stack.
+            return;
+        }
 
-        Map<Character, Delimiter> openersBottom = new HashMap<>();
+        int generation = nextOpenersBottomGeneration();
 
         // find first closer above stackBottom:
         Delimiter closer = lastDelimiter;
@@ -703,20 +777,24 @@ public class InlineParserImpl implements InlineParser, InlineParserState {
         while (closer != null) {
             char delimiterChar = closer.delimiterChar;
 
-            DelimiterProcessor delimiterProcessor = delimiterProcessors.get(delimiterChar);
-            if (!closer.canClose() || delimiterProcessor == null) {
+            int charIndex = delimiterProcessors.indexOf(delimiterChar);
+            if (!closer.canClose() || charIndex == -1) {
                 closer = closer.next;
                 continue;
             }
 
+            DelimiterProcessor delimiterProcessor = delimiterProcessors.getProcessor(charIndex);
+            int bottomIndex = charIndex * CLOSER_CLASSES + (closer.canOpen() ? 3 : 0) + closer.originalLength() % 3;
+            Delimiter openerBottom = openersBottomGenerations[bottomIndex] == generation ? openersBottom[bottomIndex] : null;
             char openingDelimiterChar = delimiterProcessor.getOpeningCharacter();
 
             // Found delimiter closer. Now look back for first matching opener.
             int usedDelims = 0;
             boolean openerFound = false;
             boolean potentialOpenerFound = false;
+            boolean openersRejected = true;
             Delimiter opener = closer.previous;
-            while (opener != null && opener != stackBottom && opener != openersBottom.get(delimiterChar)) {
+            while (opener != null && opener != stackBottom && opener != openerBottom) {
                 if (opener.canOpen() && opener.delimiterChar == openingDelimiterChar) {
                     potentialOpenerFound = true;
                     usedDelims = delimiterProcessor.process(opener, closer);
@@ -724,6 +802,9 @@ public class InlineParserImpl implements InlineParser, InlineParserState {
                         openerFound = true;
                         break;
                     }
+                    if (openersRejected && !delimiterProcessor.rejectsOpener(opener)) {
+                        openersRejected = false;
+                    }
                 }
                 opener = opener.previous;
             }
@@ -737,12 +818,27 @@ public class InlineParserImpl implements InlineParser, InlineParserState {
                     // delimiters (e.g. because of the "multiple of 3" rule),
                     // we want to consider it next time because the number
                     // of delimiters can change as we continue processing.
-                    openersBottom.put(delimiterChar, closer.previous);
+                    int first = charIndex * CLOSER_CLASSES;
+                    for (int i = first; i < first + CLOSER_CLASSES; i++) {
+                        setOpenersBottom(i, generation, closer.previous);
+                    }
                     if (!closer.canOpen()) {
                         // We can remove a closer that can't be an opener,
                         // once we've seen there's no matching opener:
                         removeDelimiterKeepNode(closer);
                     }
+                } else if (delimiterProcessor instanceof EmphasisDelimiterProcessor) {
+                    // Emphasis only rejects openers because of the "multiple of 3" rule, which uses the original
+                    // lengths. The same openers would be rejected for later closers of the same class, so the
+                    // lower bound can be set for the class.
+                    setOpenersBottom(bottomIndex, generation, closer.previous);
+                } else if (openersRejected) {
+                    // The processor rejected all the openers regardless of the closer, so later closers of any class
+                    // don't need to try them again.
+                    int first = charIndex * CLOSER_CLASSES;
+                    for (int i = first; i < first + CLOSER_CLASSES; i++) {
+                        setOpenersBottom(i, generation, closer.previous);
+                    }
                 }
                 closer = closer.next;
                 continue;
@@ -778,6 +874,21 @@ public class InlineParserImpl implements InlineParser, InlineParserState {
         }
     }
 
+    private int nextOpenersBottomGeneration() {
+        openersBottomGeneration++;
+        if (openersBottomGeneration == 0) {
+            // Wrapped around, entries from a previous generation with the same number must not be valid
+            Arrays.fill(openersBottomGenerations, 0);
+            openersBottomGeneration = 1;
+        }
+        return openersBottomGeneration;
+    }
+
+    private void setOpenersBottom(int index, int generation, Delimiter bottom) {
+        openersBottom[index] = bottom;
+        openersBottomGenerations[index] = generation;
+    }
+
     private void removeDelimitersBetween(Delimiter opener, Delimiter closer) {
         Delimiter delimiter = closer.previous;
         while (delimiter != null && delimiter != opener) {
@@ -802,6 +913,7 @@ public class InlineParserImpl implements InlineParser, InlineParserState {
     }
 
     private void removeDelimiter(Delimiter delim) {
+        delimiterCount--;
         if (delim.previous != null) {
             delim.previous.next = delim.next;
         }
@@ -834,7 +946,7 @@ public class InlineParserImpl implements InlineParser, InlineParserState {
                 if (first == null) {
                     first = text;
                 }
-                length += text.getLiteral().length();
+                length += text.getLiteralSequence().length();
                 last = text;
             } else {
                 mergeIfNeeded(first, last, length);
@@ -855,27 +967,41 @@ public class InlineParserImpl implements InlineParser, InlineParserState {
 
     private void mergeIfNeeded(Text first, Text last, int textLength) {
         if (first != null && last != null && first != last) {
-            StringBuilder sb = new StringBuilder(textLength);
-            sb.append(first.getLiteral());
+            // With lazy literals, adjacent text can be joined into a bigger view of the input without copying it.
+            // Otherwise (or once that's not possible), the literals are appended to the builder.
+            CharSequence joined = first.getLiteralSequence();
+            StringBuilder sb = null;
             SourceSpans sourceSpans = null;
             if (includeSourceSpans) {
                 sourceSpans = new SourceSpans();
-                sourceSpans.addAll(first.getSourceSpans());
+                sourceSpans.addFrom(first);
             }
             Node node = first.getNext();
             Node stop = last.getNext();
             while (node != stop) {
-                sb.append(((Text) node).getLiteral());
+                CharSequence literal = ((Text) node).getLiteralSequence();
+                if (sb == null) {
+                    CharSequence adjacent = CharSequences.joinAdjacent(joined, literal);
+                    if (adjacent != null) {
+                        joined = adjacent;
+                    } else {
+                        sb = mergeBuilder;
+                        sb.setLength(0);
+                        sb.ensureCapacity(textLength);
+                        sb.append(joined).append(literal);
+                    }
+                } else {
+                    sb.append(literal);
+                }
                 if (sourceSpans != null) {
-                    sourceSpans.addAll(node.getSourceSpans());
+                    sourceSpans.addFrom(node);
                 }
 
                 Node unlink = node;
                 node = node.getNext();
                 unlink.unlink();
             }
-            String literal = sb.toString();
-            first.setLiteral(literal);
+            first.setLiteralSequence(sb != null ? sb.toString() : joined);
             if (sourceSpans != null) {
                 first.setSourceSpans(sourceSpans.getSourceSpans());
             }
@@ -2,6 +2,7 @@ package org.commonmark.internal;
 
 import org.commonmark.internal.util.Escaping;
 import org.commonmark.internal.util.LinkScanner;
+import org.commonmark.internal.util.NormalizedLabel;
 import org.commonmark.node.LinkReferenceDefinition;
 import org.commonmark.node.SourceSpan;
 import org.commonmark.parser.SourceLine;
@@ -136,7 +137,7 @@ public class LinkReferenceDefinitionParser {
             return false;
         }
 
-        label.append(scanner.getSource(start, scanner.position()).getContent());
+        label.append(scanner.getContent(start, scanner.position()));
 
         if (!scanner.hasNext()) {
             // label might continue on next line
@@ -153,8 +154,7 @@ public class LinkReferenceDefinitionParser {
                 return false;
             }
 
-            String normalizedLabel = Escaping.normalizeLabelContent(label.toString());
-            if (normalizedLabel.isEmpty()) {
+            if (NormalizedLabel.isEmpty(label)) {
                 return false;
             }
 
@@ -174,7 +174,7 @@ public class LinkReferenceDefinitionParser {
             return false;
         }
 
-        String rawDestination = scanner.getSource(start, scanner.position()).getContent();
+        String rawDestination = scanner.getContent(start, scanner.position());
         destination = rawDestination.startsWith("<") ?
                 rawDestination.substring(1, rawDestination.length() - 1) :
                 rawDestination;
@@ -235,7 +235,7 @@ public class LinkReferenceDefinitionParser {
             return false;
         }
 
-        title.append(scanner.getSource(start, scanner.position()).getContent());
+        title.append(scanner.getContent(start, scanner.position()));
 
         if (!scanner.hasNext()) {
             // Title ran until the end of line, so continue on next line (until we find the delimiter)
@@ -0,0 +1,83 @@
+package org.commonmark.internal;
+
+import org.commonmark.parser.LimitExceededException;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits for parsing untrusted input, see {@link org.commonmark.parser.Parser.Builder#maxNestingDepth} etc.
+ */
+public class ParseLimits {
+
+    public static final ParseLimits NONE = new ParseLimits(
+            Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE);
+
+    private final int maxNestingDepth;
+    private final int maxNodes;
+    private final int maxInlineStackDepth;
+    private final int maxLineLength;
+
+    public ParseLimits(int maxNestingDepth, int maxNodes, int maxInlineStackDepth, int maxLineLength) {
+        this.maxNestingDepth = maxNestingDepth;
+        this.maxNodes = maxNodes;
+        this.maxInlineStackDepth = maxInlineStackDepth;
+        this.maxLineLength = maxLineLength;
+    }
+
+    public int getMaxNestingDepth() {
+        return maxNestingDepth;
+    }
+
+    public int getMaxInlineStackDepth() {
+        return maxInlineStackDepth;
+    }
+
+    public void checkLineLength(int length) {
+        if (length > maxLineLength) {
+            throw new LimitExceededException("Line is longer than " + maxLineLength + " characters");
+        }
+    }
+
+    /**
+     * @return a counter for the nodes of one document
+     */
+    public NodeCounter newNodeCounter() {
+        return new NodeCounter(maxNodes);
+    }
+
+    /**
+     * Counts the nodes of a document, which can be done from multiple threads when inlines are parsed in parallel.
+     */
+    public static class NodeCounter {
+
+        private final int maxNodes;
+        private final AtomicLong count = new AtomicLong();
+
+        private NodeCounter(int maxNodes) {
+            this.maxNodes = maxNodes;
+        }
+
+        /**
+         * @throws LimitExceededException if the document has more nodes than allowed now
+         */
+        public void add(long nodes) {
+            if (count.addAndGet(nodes) > maxNodes) {
+                throw new LimitExceededException("Document has more than " + maxNodes + " nodes");
+            }
+        }
+
+        /**
+         * @return how many more nodes can be added
+         */
+        public long getRemaining() {
+            return maxNodes - count.get();
+        }
+
+        /**
+         * @return how many nodes were added so far
+         */
+        public long getCount() {
+            return count.get();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package org.commonmark.internal;
+
+import org.commonmark.node.Block;
+import org.commonmark.node.Node;
+import org.commonmark.node.SourceSpan;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * The inline content of a block that is parsed when the children of the block are first accessed, see
+ * {@code Parser.Builder#lazyInlineParsing}. {@link Block} keeps it in a private field, which is set with
+ * {@link #defer}, and calls {@link #parse()} before accessing its children. So the pending parsing doesn't show up in
+ * the public API of blocks, and it stays with the block when the block is moved to another document.
+ * <p>
+ * The parsing is run at most once, from whichever thread accesses the children first. Other threads accessing the
+ * children at the same time wait for it to finish.
+ */
+public final class PendingInlines {
+
+    private static volatile BiConsumer<Block, PendingInlines> blockSetter;
+    private static volatile Function<Block, PendingInlines> blockGetter;
+
+    private final Block block;
+    private final Runnable parseInlines;
+    // Guarded by this
+    private Thread parsingThread;
+    private boolean parsed;
+    private Throwable failure;
+    private int inputIndexDelta;
+    private int lineIndexDelta;
+
+    private PendingInlines(Block block, Runnable parseInlines) {
+        this.block = block;
+        this.parseInlines = parseInlines;
+    }
+
+    /**
+     * Called by {@link Block} to give this access to its private field, as it's in another package.
+     */
+    public static void setBlockAccess(BiConsumer<Block, PendingInlines> setter, Function<Block, PendingInlines> getter) {
+        if (blockSetter != null) {
+            throw new IllegalStateException("Block access already set");
+        }
+        blockGetter = Objects.requireNonNull(getter, "getter must not be null");
+        blockSetter = Objects.requireNonNull(setter, "setter must not be null");
+    }
+
+    /**
+     * Defer parsing the inline content of the block until its children are first accessed.
+     *
+     * @param parseInlines adds the inline children to the block
+     */
+    static void defer(Block block, Runnable parseInlines) {
+        // The block exists, so its class is initialized and the setter is set
+        blockSetter.accept(block, new PendingInlines(block, parseInlines));
+    }
+
+    /**
+     * Shift the source spans of the node and its descendants, e.g. because the input before them was edited. The inline
+     * content of blocks that is not parsed yet is not parsed for this, its source spans are shifted when it's parsed.
+     */
+    public static void shiftSourceSpans(Node node, int inputIndexDelta, int lineIndexDelta) {
+        int count = node.getSourceSpanCount();
+        if (count != 0) {
+            List<SourceSpan> shifted = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                SourceSpan sourceSpan = node.getSourceSpan(i);
+                shifted.add(SourceSpan.of(sourceSpan.getLineIndex() + lineIndexDelta, sourceSpan.getColumnIndex(),
+                        sourceSpan.getInputIndex() + inputIndexDelta, sourceSpan.getLength()));
+            }
+            node.setSourceSpans(shifted);
+        }
+        if (node instanceof Block) {
+            var pending = blockGetter.apply((Block) node);
+            if (pending != null && pending.deferShift(inputIndexDelta, lineIndexDelta)) {
+                return;
+            }
+        }
+        for (Node child = node.getFirstChild(); child != null; child = child.getNext()) {
+            shiftSourceSpans(child, inputIndexDelta, lineIndexDelta);
+        }
+    }
+
+    /**
+     * Parse the inline content, unless it's already parsed or it's currently being parsed by this thread (parsing
+     * appends the children to the block, which ends up here again). If parsing failed, e.g. because a limit was
+     * exceeded, the exception is thrown again, so that the block doesn't look complete with only part of its children.
+     *
+     * @return true if the inline content is parsed, false if it's currently being parsed by this thread
+     */
+    public synchronized boolean parse() {
+        if (failure != null) {
+            throwFailure();
+        }
+        if (parsed) {
+            return true;
+        }
+        if (parsingThread == Thread.currentThread()) {
+            return false;
+        }
+        parsingThread = Thread.currentThread();
+        try {
+            parseInlines.run();
+            if (inputIndexDelta != 0 || lineIndexDelta != 0) {
+                // The block's children are accessed from the parsing thread, so this doesn't end up parsing again
+                for (Node child = block.getFirstChild(); child != null; child = child.getNext()) {
+                    shiftSourceSpans(child, inputIndexDelta, lineIndexDelta);
+                }
+            }
+            parsed = true;
+            return true;
+        } catch (RuntimeException | Error e) {
+            failure = e;
+            throw e;
+        } finally {
+            parsingThread = null;
+        }
+    }
+
+    /**
+     * @return true if the shift is applied to the inline content when it's parsed, false if it's already parsed
+     */
+    private synchronized boolean deferShift(int inputIndexDelta, int lineIndexDelta) {
+        if (parsed) {
+            return false;
+        }
+        this.inputIndexDelta += inputIndexDelta;
+        this.lineIndexDelta += lineIndexDelta;
+        return true;
+    }
+
+    private void throwFailure() {
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        throw (Error) failure;
+    }
+}
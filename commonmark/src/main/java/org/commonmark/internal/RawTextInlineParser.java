@@ -0,0 +1,24 @@
+package org.commonmark.internal;
+
+import org.commonmark.node.Node;
+import org.commonmark.node.Text;
+import org.commonmark.parser.InlineParser;
+import org.commonmark.parser.SourceLines;
+
+/**
+ * Inline parser used when inline parsing is disabled. Instead of parsing the content, it adds it as a single
+ * {@link Text} node, with lines separated by {@code \n}. No emphasis, links etc are recognized, and link reference
+ * definitions are not used.
+ */
+public class RawTextInlineParser implements InlineParser {
+
+    @Override
+    public void parse(SourceLines lines, Node block) {
+        if (lines.isEmpty()) {
+            return;
+        }
+        Text text = new Text(lines.getContent());
+        text.setSourceSpans(lines.getSourceSpans());
+        block.appendChild(text);
+    }
+}
@@ -3,9 +3,6 @@ package org.commonmark.internal;
 import org.commonmark.parser.delimiter.DelimiterProcessor;
 import org.commonmark.parser.delimiter.DelimiterRun;
 
-import java.util.LinkedList;
-import java.util.ListIterator;
-
 /**
  * An implementation of DelimiterProcessor that dispatches all calls to two or more other DelimiterProcessors
  * depending on the length of the delimiter run. All child DelimiterProcessors must have different minimum
@@ -14,9 +11,12 @@ import java.util.ListIterator;
  */
 class StaggeredDelimiterProcessor implements DelimiterProcessor {
 
+    private static final int MAX_LOOKUP_LENGTH = 64;
+
     private final char delim;
     private int minLength = 0;
-    private LinkedList<DelimiterProcessor> processors = new LinkedList<>(); // in reverse getMinLength order
+    private DelimiterProcessor[] processors = new DelimiterProcessor[0]; // in reverse getMinLength order
+    private DelimiterProcessor[] processorsByLength = new DelimiterProcessor[0];
 
     StaggeredDelimiterProcessor(char delim) {
         this.delim = delim;
@@ -40,23 +40,27 @@ class StaggeredDelimiterProcessor implements DelimiterProcessor {
 
     void add(DelimiterProcessor dp) {
         final int len = dp.getMinLength();
-        ListIterator<DelimiterProcessor> it = processors.listIterator();
-        boolean added = false;
-        while (it.hasNext()) {
-            DelimiterProcessor p = it.next();
-            int pLen = p.getMinLength();
+        int insertAt = processors.length;
+        for (int i = 0; i < processors.length; i++) {
+            int pLen = processors[i].getMinLength();
             if (len > pLen) {
-                it.previous();
-                it.add(dp);
-                added = true;
+                insertAt = i;
                 break;
             } else if (len == pLen) {
-                throw new IllegalArgumentException("Cannot add two delimiter processors for char '" + delim + "' and minimum length " + len + "; conflicting processors: " + p + ", " + dp);
+                throw new IllegalArgumentException("Cannot add two delimiter processors for char '" + delim + "' and minimum length " + len + "; conflicting processors: " + processors[i] + ", " + dp);
             }
         }
-        if (!added) {
-            processors.add(dp);
-            this.minLength = len;
+        DelimiterProcessor[] newProcessors = new DelimiterProcessor[processors.length + 1];
+        System.arraycopy(processors, 0, newProcessors, 0, insertAt);
+        newProcessors[insertAt] = dp;
+        System.arraycopy(processors, insertAt, newProcessors, insertAt + 1, processors.length - insertAt);
+        processors = newProcessors;
+        minLength = processors[processors.length - 1].getMinLength();
+
+        // Look up the processor for short runs directly, longer runs go to the first processor in most cases
+        processorsByLength = new DelimiterProcessor[Math.min(processors[0].getMinLength(), MAX_LOOKUP_LENGTH)];
+        for (int length = 0; length < processorsByLength.length; length++) {
+            processorsByLength[length] = findProcessor(length);
         }
     }
 
@@ -66,11 +70,21 @@ class StaggeredDelimiterProcessor implements DelimiterProcessor {
                 return p;
             }
         }
-        return processors.getFirst();
+        return processors[0];
     }
 
     @Override
     public int process(DelimiterRun openingRun, DelimiterRun closingRun) {
-        return findProcessor(openingRun.length()).process(openingRun, closingRun);
+        return getProcessor(openingRun).process(openingRun, closingRun);
+    }
+
+    @Override
+    public boolean rejectsOpener(DelimiterRun openingRun) {
+        return getProcessor(openingRun).rejectsOpener(openingRun);
+    }
+
+    private DelimiterProcessor getProcessor(DelimiterRun openingRun) {
+        int length = openingRun.length();
+        return length < processorsByLength.length ? processorsByLength[length] : findProcessor(length);
     }
 }
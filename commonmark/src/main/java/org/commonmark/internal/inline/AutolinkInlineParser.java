@@ -47,6 +47,12 @@ public class AutolinkInlineParser implements InlineContentParser {
         return ParsedInline.none();
     }
 
+    @Override
+    public boolean reset() {
+        // No state
+        return true;
+    }
+
     public static class Factory implements InlineContentParserFactory {
         @Override
         public Set<Character> getTriggerCharacters() {
@@ -34,6 +34,12 @@ public class BackslashInlineParser implements InlineContentParser {
         }
     }
 
+    @Override
+    public boolean reset() {
+        // No state
+        return true;
+    }
+
     public static class Factory implements InlineContentParserFactory {
         @Override
         public Set<Character> getTriggerCharacters() {
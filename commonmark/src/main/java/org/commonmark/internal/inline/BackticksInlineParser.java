@@ -26,7 +26,7 @@ public class BackticksInlineParser implements InlineContentParser {
             if (count == openingTicks) {
                 Code node = new Code();
 
-                String content = scanner.getSource(afterOpening, beforeClosing).getContent();
+                String content = scanner.getContent(afterOpening, beforeClosing);
                 content = content.replace('\n', ' ');
 
                 // spec: If the resulting string both begins and ends with a space character, but does not consist
@@ -49,6 +49,12 @@ public class BackticksInlineParser implements InlineContentParser {
         return ParsedInline.of(text, afterOpening);
     }
 
+    @Override
+    public boolean reset() {
+        // No state
+        return true;
+    }
+
     public static class Factory implements InlineContentParserFactory {
         @Override
         public Set<Character> getTriggerCharacters() {
@@ -53,7 +53,7 @@ public abstract class EmphasisDelimiterProcessor implements DelimiterProcessor {
         Text opener = openingRun.getOpener();
         for (Node node : Nodes.between(opener, closingRun.getCloser())) {
             emphasis.appendChild(node);
-            sourceSpans.addAll(node.getSourceSpans());
+            sourceSpans.addFrom(node);
         }
 
         sourceSpans.addAllFrom(closingRun.getClosers(usedDelimiters));
@@ -49,8 +49,14 @@ public class EntityInlineParser implements InlineContentParser {
         return ParsedInline.none();
     }
 
+    @Override
+    public boolean reset() {
+        // No state
+        return true;
+    }
+
     private ParsedInline entity(Scanner scanner, Position start) {
-        String text = scanner.getSource(start, scanner.position()).getContent();
+        String text = scanner.getContent(start, scanner.position());
         return ParsedInline.of(new Text(Html5Entities.entityToString(text)), scanner.position());
     }
 
@@ -27,6 +27,16 @@ public class HtmlInlineParser implements InlineContentParser {
             .c('"').c('\'').c('=').c('<').c('>').c('`')
             .build();
 
+    // A parser is used for the content of one block. When we searched for the end of a construct and reached the end
+    // of the content, there's no end after any later start either. Remembering that avoids searching to the end of the
+    // content again for each start, which would take quadratic time for input like `<? <? <?`.
+    private boolean noSingleQuote;
+    private boolean noDoubleQuote;
+    private boolean noProcessingInstructionEnd;
+    private boolean noCommentEnd;
+    private boolean noCdataEnd;
+    private boolean noDeclarationEnd;
+
     @Override
     public ParsedInline tryParse(InlineParserState inlineParserState) {
         Scanner scanner = inlineParserState.scanner();
@@ -69,14 +79,25 @@ public class HtmlInlineParser implements InlineContentParser {
         return ParsedInline.none();
     }
 
+    @Override
+    public boolean reset() {
+        noSingleQuote = false;
+        noDoubleQuote = false;
+        noProcessingInstructionEnd = false;
+        noCommentEnd = false;
+        noCdataEnd = false;
+        noDeclarationEnd = false;
+        return true;
+    }
+
     private static ParsedInline htmlInline(Position start, Scanner scanner) {
-        String text = scanner.getSource(start, scanner.position()).getContent();
+        String text = scanner.getContent(start, scanner.position());
         HtmlInline node = new HtmlInline();
         node.setLiteral(text);
         return ParsedInline.of(node, scanner.position());
     }
 
-    private static boolean tryOpenTag(Scanner scanner) {
+    private boolean tryOpenTag(Scanner scanner) {
         // spec: An open tag consists of a < character, a tag name, zero or more attributes, optional whitespace,
         // an optional / character, and a > character.
         scanner.next();
@@ -93,13 +114,15 @@ public class HtmlInlineParser implements InlineContentParser {
                 char valueStart = scanner.peek();
                 if (valueStart == '\'') {
                     scanner.next();
-                    if (scanner.find('\'') < 0) {
+                    if (noSingleQuote || scanner.find('\'') < 0) {
+                        noSingleQuote = true;
                         return false;
                     }
                     scanner.next();
                 } else if (valueStart == '"') {
                     scanner.next();
-                    if (scanner.find('"') < 0) {
+                    if (noDoubleQuote || scanner.find('"') < 0) {
+                        noDoubleQuote = true;
                         return false;
                     }
                     scanner.next();
@@ -129,20 +152,24 @@ public class HtmlInlineParser implements InlineContentParser {
         return false;
     }
 
-    private static boolean tryProcessingInstruction(Scanner scanner) {
+    private boolean tryProcessingInstruction(Scanner scanner) {
         // spec: A processing instruction consists of the string <?, a string of characters not including the string ?>,
         // and the string ?>.
         scanner.next();
+        if (noProcessingInstructionEnd) {
+            return false;
+        }
         while (scanner.find('?') > 0) {
             scanner.next();
             if (scanner.next('>')) {
                 return true;
             }
         }
+        noProcessingInstructionEnd = true;
         return false;
     }
 
-    private static boolean tryComment(Scanner scanner) {
+    private boolean tryComment(Scanner scanner) {
         // spec: An [HTML comment](@) consists of `<!-->`, `<!--->`, or  `<!--`, a string of
         // characters not including the string `-->`, and `-->` (see the
         // [HTML spec](https://html.spec.whatwg.org/multipage/parsing.html#markup-declaration-open-state)).
@@ -157,6 +184,9 @@ public class HtmlInlineParser implements InlineContentParser {
             return true;
         }
 
+        if (noCommentEnd) {
+            return false;
+        }
         while (scanner.find('-') >= 0) {
             if (scanner.next("-->")) {
                 return true;
@@ -165,17 +195,18 @@ public class HtmlInlineParser implements InlineContentParser {
             }
         }
 
+        noCommentEnd = true;
         return false;
     }
 
-    private static boolean tryCdata(Scanner scanner) {
+    private boolean tryCdata(Scanner scanner) {
         // spec: A CDATA section consists of the string <![CDATA[, a string of characters not including the string ]]>,
         // and the string ]]>.
 
         // Skip `[`
         scanner.next();
 
-        if (scanner.next("CDATA[")) {
+        if (scanner.next("CDATA[") && !noCdataEnd) {
             while (scanner.find(']') >= 0) {
                 if (scanner.next("]]>")) {
                     return true;
@@ -183,22 +214,24 @@ public class HtmlInlineParser implements InlineContentParser {
                     scanner.next();
                 }
             }
+            noCdataEnd = true;
         }
 
         return false;
     }
 
-    private static boolean tryDeclaration(Scanner scanner) {
+    private boolean tryDeclaration(Scanner scanner) {
         // spec: A declaration consists of the string <!, an ASCII letter, zero or more characters not including
         // the character >, and the character >.
         scanner.match(asciiLetter);
         if (scanner.whitespace() <= 0) {
             return false;
         }
-        if (scanner.find('>') >= 0) {
+        if (!noDeclarationEnd && scanner.find('>') >= 0) {
             scanner.next();
             return true;
         }
+        noDeclarationEnd = true;
         return false;
     }
 
@@ -0,0 +1,130 @@
+package org.commonmark.internal.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A read-only view of a range of ASCII bytes in a {@link ByteBuffer}, where each byte is a character.
+ * <p>
+ * This is used for parsing UTF-8 input without decoding it first, see {@link Utf8LineReader}. The bytes are only
+ * decoded when {@link #toString()} is called, e.g. when a node literal needs its own String.
+ */
+public final class AsciiView implements CharSequence {
+
+    private final ByteBuffer source;
+    private final int start;
+    private final int end;
+
+    private AsciiView(ByteBuffer source, int start, int end) {
+        this.source = source;
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * @param source the buffer, which must only contain ASCII bytes from {@code start} to {@code end}
+     * @return a view of {@code source} from {@code start} (inclusive) to {@code end} (exclusive)
+     */
+    public static AsciiView of(ByteBuffer source, int start, int end) {
+        checkRange(start, end, source.limit());
+        return new AsciiView(source, start, end);
+    }
+
+    @Override
+    public int length() {
+        return end - start;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= end - start) {
+            throw new StringIndexOutOfBoundsException("index " + index + ", length " + (end - start));
+        }
+        return (char) source.get(start + index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        checkRange(start, end, this.end - this.start);
+        return of(source, this.start + start, this.start + end);
+    }
+
+    /**
+     * @return a view from the start of this view to the end of {@code next} if {@code next} directly follows this
+     * view in the same source, {@code null} otherwise
+     */
+    CharSequence joinAdjacent(CharSequence next) {
+        if (next instanceof AsciiView) {
+            AsciiView other = (AsciiView) next;
+            if (other.source == source && other.start == end) {
+                return of(source, start, other.end);
+            }
+        }
+        return null;
+    }
+
+    int find(CharacterSet set, int startIndex) {
+        int i = start + startIndex;
+        while (i < end && !set.matches((char) source.get(i))) {
+            i++;
+        }
+        return i - start;
+    }
+
+    /**
+     * Compares content with the other views of the input ({@link StringView}, {@link CharArrayView} and
+     * {@link AsciiView}). Not equal to a String with the same content, as that would not be symmetric; use
+     * {@code CharSequence.compare(a, b) == 0} or {@link #toString()} to compare with a String.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof AsciiView) && !(o instanceof CharArrayView) && !(o instanceof StringView)) {
+            return false;
+        }
+        CharSequence other = (CharSequence) o;
+        int length = end - start;
+        if (other.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (source.get(start + i) != other.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Same as the hash code of the equivalent String.
+     */
+    @Override
+    public int hashCode() {
+        int h = 0;
+        for (int i = start; i < end; i++) {
+            h = 31 * h + source.get(i);
+        }
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        int length = end - start;
+        if (source.hasArray()) {
+            return new String(source.array(), source.arrayOffset() + start, length, StandardCharsets.ISO_8859_1);
+        }
+        byte[] bytes = new byte[length];
+        ByteBuffer slice = source.duplicate();
+        slice.position(start);
+        slice.get(bytes);
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    private static void checkRange(int start, int end, int length) {
+        if (start < 0 || start > end || end > length) {
+            throw new StringIndexOutOfBoundsException("begin " + start + ", end " + end + ", length " + length);
+        }
+    }
+}
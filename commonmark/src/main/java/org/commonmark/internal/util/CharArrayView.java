@@ -0,0 +1,114 @@
+package org.commonmark.internal.util;
+
+/**
+ * A read-only view of a range of characters in a {@code char[]}, such as the buffer of {@link LineReader}.
+ * <p>
+ * The array must not be modified while the view is in use. The characters are only copied when {@link #toString()} is
+ * called, e.g. when a node literal needs its own String.
+ */
+public final class CharArrayView implements CharSequence {
+
+    private final char[] source;
+    private final int start;
+    private final int end;
+
+    private CharArrayView(char[] source, int start, int end) {
+        this.source = source;
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * @return a view of {@code source} from {@code start} (inclusive) to {@code end} (exclusive)
+     */
+    public static CharArrayView of(char[] source, int start, int end) {
+        checkRange(start, end, source.length);
+        return new CharArrayView(source, start, end);
+    }
+
+    @Override
+    public int length() {
+        return end - start;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= end - start) {
+            throw new StringIndexOutOfBoundsException("index " + index + ", length " + (end - start));
+        }
+        return source[start + index];
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        checkRange(start, end, this.end - this.start);
+        return of(source, this.start + start, this.start + end);
+    }
+
+    /**
+     * @return a view from the start of this view to the end of {@code next} if {@code next} directly follows this
+     * view in the same source, {@code null} otherwise
+     */
+    CharSequence joinAdjacent(CharSequence next) {
+        if (next instanceof CharArrayView) {
+            CharArrayView other = (CharArrayView) next;
+            if (other.source == source && other.start == end) {
+                return of(source, start, other.end);
+            }
+        }
+        return null;
+    }
+
+    int find(CharacterSet set, int startIndex) {
+        return set.find(source, start + startIndex, end) - start;
+    }
+
+    /**
+     * Compares content with the other views of the input ({@link StringView}, {@link CharArrayView} and
+     * {@link AsciiView}). Not equal to a String with the same content, as that would not be symmetric; use
+     * {@code CharSequence.compare(a, b) == 0} or {@link #toString()} to compare with a String.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CharArrayView) && !(o instanceof StringView) && !(o instanceof AsciiView)) {
+            return false;
+        }
+        CharSequence other = (CharSequence) o;
+        int length = end - start;
+        if (other.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (source[start + i] != other.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Same as the hash code of the equivalent String.
+     */
+    @Override
+    public int hashCode() {
+        int h = 0;
+        for (int i = start; i < end; i++) {
+            h = 31 * h + source[i];
+        }
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        return new String(source, start, end - start);
+    }
+
+    private static void checkRange(int start, int end, int length) {
+        if (start < 0 || start > end || end > length) {
+            throw new StringIndexOutOfBoundsException("begin " + start + ", end " + end + ", length " + length);
+        }
+    }
+}
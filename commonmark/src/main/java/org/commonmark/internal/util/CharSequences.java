@@ -0,0 +1,26 @@
+package org.commonmark.internal.util;
+
+/**
+ * Utilities for the views of the input ({@link StringView}, {@link CharArrayView} and {@link AsciiView}).
+ */
+public final class CharSequences {
+
+    private CharSequences() {
+    }
+
+    /**
+     * Join two parts of the input without copying them, if the second part directly follows the first one.
+     *
+     * @return a view covering both parts, or {@code null} if they are not adjacent views of the same source
+     */
+    public static CharSequence joinAdjacent(CharSequence first, CharSequence second) {
+        if (first instanceof StringView) {
+            return ((StringView) first).joinAdjacent(second);
+        } else if (first instanceof CharArrayView) {
+            return ((CharArrayView) first).joinAdjacent(second);
+        } else if (first instanceof AsciiView) {
+            return ((AsciiView) first).joinAdjacent(second);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,97 @@
+package org.commonmark.internal.util;
+
+import org.commonmark.text.CharMatcher;
+
+import java.util.BitSet;
+
+/**
+ * A set of characters that is fast to check for ASCII characters, which are looked up in two words with a shift and a
+ * mask instead of going through a {@link BitSet}. Other characters are still supported, but slower.
+ */
+public final class CharacterSet implements CharMatcher {
+
+    // Bit i is set if character i is in the set (for 0 to 63)
+    private final long low;
+    // Bit i is set if character 64 + i is in the set
+    private final long high;
+    // Characters above 127, or null if there are none
+    private final BitSet other;
+
+    private CharacterSet(long low, long high, BitSet other) {
+        this.low = low;
+        this.high = high;
+        this.other = other;
+    }
+
+    public static CharacterSet of(BitSet characters) {
+        long low = 0;
+        long high = 0;
+        BitSet other = null;
+        for (int c = characters.nextSetBit(0); c >= 0; c = characters.nextSetBit(c + 1)) {
+            if (c < 64) {
+                low |= 1L << c;
+            } else if (c < 128) {
+                high |= 1L << c;
+            } else {
+                if (other == null) {
+                    other = new BitSet();
+                }
+                other.set(c);
+            }
+        }
+        return new CharacterSet(low, high, other);
+    }
+
+    /**
+     * Find the first character in the set, going through the characters of the known {@link CharSequence}
+     * implementations directly instead of calling {@link CharSequence#charAt} for each.
+     *
+     * @return the index of the first character in the set from {@code startIndex} on, or the length of {@code s} if
+     * there is none
+     */
+    public int find(CharSequence s, int startIndex) {
+        if (s instanceof String) {
+            return find((String) s, startIndex, s.length());
+        } else if (s instanceof StringView) {
+            return ((StringView) s).find(this, startIndex);
+        } else if (s instanceof CharArrayView) {
+            return ((CharArrayView) s).find(this, startIndex);
+        } else if (s instanceof AsciiView) {
+            return ((AsciiView) s).find(this, startIndex);
+        }
+        int length = s.length();
+        int i = startIndex;
+        while (i < length && !matches(s.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    int find(String s, int startIndex, int endIndex) {
+        int i = startIndex;
+        while (i < endIndex && !matches(s.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    int find(char[] chars, int startIndex, int endIndex) {
+        int i = startIndex;
+        while (i < endIndex && !matches(chars[i])) {
+            i++;
+        }
+        return i;
+    }
+
+    @Override
+    public boolean matches(char c) {
+        // Shifts only use the lowest 6 bits of c, so there's no need to subtract 64 for the high word
+        if (c < 64) {
+            return (low & (1L << c)) != 0;
+        } else if (c < 128) {
+            return (high & (1L << c)) != 0;
+        } else {
+            return other != null && other.get(c);
+        }
+    }
+}
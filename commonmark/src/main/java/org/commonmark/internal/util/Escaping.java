@@ -63,28 +63,14 @@ public class Escaping {
         // Avoid building a new string in the majority of cases (nothing to escape)
         StringBuilder sb = null;
 
-        loop:
         for (int i = 0; i < input.length(); i++) {
             char c = input.charAt(i);
-            String replacement;
-            switch (c) {
-                case '&':
-                    replacement = "&amp;";
-                    break;
-                case '<':
-                    replacement = "&lt;";
-                    break;
-                case '>':
-                    replacement = "&gt;";
-                    break;
-                case '\"':
-                    replacement = "&quot;";
-                    break;
-                default:
-                    if (sb != null) {
-                        sb.append(c);
-                    }
-                    continue loop;
+            String replacement = escapeHtml(c);
+            if (replacement == null) {
+                if (sb != null) {
+                    sb.append(c);
+                }
+                continue;
             }
             if (sb == null) {
                 sb = new StringBuilder();
@@ -96,6 +82,24 @@ public class Escaping {
         return sb != null ? sb.toString() : input;
     }
 
+    /**
+     * @return the escaped form of the character for HTML, or {@code null} if it doesn't need escaping
+     */
+    public static String escapeHtml(char c) {
+        switch (c) {
+            case '&':
+                return "&amp;";
+            case '<':
+                return "&lt;";
+            case '>':
+                return "&gt;";
+            case '\"':
+                return "&quot;";
+            default:
+                return null;
+        }
+    }
+
     /**
      * Replace entities and backslash escapes with literal characters.
      */
@@ -112,6 +116,11 @@ public class Escaping {
     }
 
     public static String normalizeLabelContent(String input) {
+        NormalizedLabel ascii = NormalizedLabel.of(input);
+        if (ascii != null) {
+            return ascii.toString();
+        }
+
         String trimmed = input.trim();
 
         // This is necessary to correctly case fold "\u1E9E" (LATIN CAPITAL LETTER SHARP S) to "SS":
@@ -1,5 +1,7 @@
 package org.commonmark.internal.util;
 
+import org.commonmark.internal.ParseLimits;
+
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.Reader;
@@ -11,8 +13,11 @@ import java.io.Reader;
  * by a line feed {@code "\r\n"}. Call {@link #getLineTerminator()} after {@link #readLine()} to obtain the
  * corresponding line terminator. If a stream has a line at the end without a terminator, {@link #getLineTerminator()}
  * returns {@code null}.
+ * <p>
+ * Lines can either be read as Strings with {@link #readLine()}, or as views of the reader's buffer with
+ * {@link #readLineView()}, which avoids copying each line into a new String.
  */
-public class LineReader implements Closeable {
+public class LineReader implements Closeable, LineSource {
 
     // Same as java.io.BufferedReader
     static final int CHAR_BUFFER_SIZE = 8192;
@@ -20,15 +25,39 @@ public class LineReader implements Closeable {
 
     private Reader reader;
     private char[] cbuf;
+    private final int bufferSize;
+    // Whether a view of the buffer has been returned, in which case it must not be overwritten
+    private boolean viewed = false;
 
     private int position = 0;
     private int limit = 0;
 
     private String lineTerminator = null;
+    private ParseLimits limits = ParseLimits.NONE;
 
     public LineReader(Reader reader) {
+        this(reader, CHAR_BUFFER_SIZE);
+    }
+
+    /**
+     * @param bufferSize the number of characters to read from the reader at once; lines that are longer than that
+     *                   need more than one read and are copied when the buffer is filled again
+     */
+    public LineReader(Reader reader, int bufferSize) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("bufferSize must be at least 1, was " + bufferSize);
+        }
         this.reader = reader;
-        this.cbuf = new char[CHAR_BUFFER_SIZE];
+        this.bufferSize = bufferSize;
+        this.cbuf = new char[bufferSize];
+    }
+
+    /**
+     * Check the length of lines against the limits while reading them, so that a line that is too long fails before
+     * all of it has been read into memory.
+     */
+    public void setLimits(ParseLimits limits) {
+        this.limits = limits;
     }
 
     /**
@@ -97,6 +126,76 @@ public class LineReader implements Closeable {
                 sb = new StringBuilder(EXPECTED_LINE_LENGTH);
             }
             sb.append(cbuf, start, i - start);
+            limits.checkLineLength(sb.length());
+        }
+    }
+
+    /**
+     * Read a line of text as a view of the buffer, without copying it into a new String.
+     * <p>
+     * The buffer is never overwritten after a view of it has been returned; when more input is needed, a new buffer
+     * is allocated instead, and the unfinished line is moved to its start (growing the buffer if the line is longer
+     * than it). So the returned view stays valid and can be kept (e.g. by a block parser that keeps its lines) after
+     * reading the next line.
+     *
+     * @return the line, or {@code null} when the end of the stream has been reached and no more lines can be read
+     */
+    @Override
+    public CharSequence readLineView() throws IOException {
+        int start = position;
+        int i = position;
+        while (true) {
+            for (; i < limit; i++) {
+                char c = cbuf[i];
+                if (c == '\n') {
+                    position = i + 1;
+                    return view(start, i, "\n");
+                } else if (c == '\r') {
+                    if (i + 1 < limit) {
+                        if (cbuf[i + 1] == '\n') {
+                            position = i + 2;
+                            return view(start, i, "\r\n");
+                        } else {
+                            position = i + 1;
+                            return view(start, i, "\r");
+                        }
+                    } else {
+                        // We don't know what the next character is yet, look at the CR again after refilling.
+                        break;
+                    }
+                }
+            }
+
+            limits.checkLineLength(i - start);
+            boolean more = refill(start);
+            i -= start;
+            start = 0;
+            if (!more) {
+                // End of stream, return either the last line (which may end with CR) or null for end.
+                position = limit;
+                if (i < limit) {
+                    return view(start, i, "\r");
+                }
+                if (i == start) {
+                    this.lineTerminator = null;
+                    return null;
+                }
+                return view(start, i, null);
+            }
+        }
+    }
+
+    /**
+     * Skip a byte order mark (U+FEFF) at the current position if there is one. Call this before reading the first line
+     * to ignore a BOM at the start of the input.
+     */
+    @Override
+    public void skipByteOrderMark() throws IOException {
+        if (position >= limit) {
+            fill();
+        }
+        if (position < limit && cbuf[position] == '\uFEFF') {
+            position++;
         }
     }
 
@@ -105,6 +204,7 @@ public class LineReader implements Closeable {
      *
      * @return {@code "\n"}, {@code "\r"}, {@code "\r\n"}, or {@code null}
      */
+    @Override
     public String getLineTerminator() {
         return lineTerminator;
     }
@@ -123,6 +223,10 @@ public class LineReader implements Closeable {
     }
 
     private void fill() throws IOException {
+        if (viewed) {
+            cbuf = new char[bufferSize];
+            viewed = false;
+        }
         int read;
         do {
             read = reader.read(cbuf, 0, cbuf.length);
@@ -133,6 +237,46 @@ public class LineReader implements Closeable {
         }
     }
 
+    /**
+     * Move the characters from {@code start} to the start of the buffer (a new one if needed) and read more input after them.
+     *
+     * @return false if the end of the stream has been reached
+     */
+    private boolean refill(int start) throws IOException {
+        int keep = limit - start;
+        int size = bufferSize;
+        if (keep > bufferSize / 2) {
+            // Make sure there's room for at least as much as we keep, so that long lines are copied only a few times
+            size = (int) Math.min(Math.max((long) keep * 2, bufferSize), Integer.MAX_VALUE - 8);
+        }
+        if (viewed || size > cbuf.length) {
+            char[] buffer = new char[size];
+            System.arraycopy(cbuf, start, buffer, 0, keep);
+            cbuf = buffer;
+            viewed = false;
+        } else {
+            System.arraycopy(cbuf, start, cbuf, 0, keep);
+        }
+        position = 0;
+        limit = keep;
+
+        int read;
+        do {
+            read = reader.read(cbuf, keep, cbuf.length - keep);
+        } while (read == 0);
+        if (read < 0) {
+            return false;
+        }
+        limit = keep + read;
+        return true;
+    }
+
+    private CharSequence view(int start, int end, String lineTerminator) {
+        this.lineTerminator = lineTerminator;
+        viewed = true;
+        return CharArrayView.of(cbuf, start, end);
+    }
+
     private String line(String line, String lineTerminator) {
         this.lineTerminator = lineTerminator;
         return line;
@@ -0,0 +1,28 @@
+package org.commonmark.internal.util;
+
+import java.io.IOException;
+
+/**
+ * A source of input lines for parsing, see {@link LineReader} and {@link Utf8LineReader}.
+ */
+public interface LineSource {
+
+    /**
+     * Read the next line. The returned sequence must not change afterwards, as block parsers may keep it.
+     *
+     * @return the line, or {@code null} when the end of the input has been reached
+     */
+    CharSequence readLineView() throws IOException;
+
+    /**
+     * Return the line terminator of the last read line.
+     *
+     * @return {@code "\n"}, {@code "\r"}, {@code "\r\n"}, or {@code null} if the last line had no terminator
+     */
+    String getLineTerminator();
+
+    /**
+     * Skip a byte order mark at the current position if there is one.
+     */
+    void skipByteOrderMark() throws IOException;
+}
@@ -0,0 +1,172 @@
+package org.commonmark.internal.util;
+
+/**
+ * The normalized form of an ASCII link label, the same as {@link Escaping#normalizeLabelContent} but without creating
+ * the normalized String for it.
+ * <p>
+ * Labels are equal if their normalized content is, so they can be used as map keys: store the normalized Strings with
+ * {@link #ofNormalized}, and look up labels with {@link #of} without normalizing them first. Normalizing is done on the
+ * fly: trimming, ASCII case folding, and collapsing whitespace. The hash code is the same as the one of the normalized
+ * String.
+ */
+public final class NormalizedLabel {
+
+    private final CharSequence label;
+    // Range of the label after trimming
+    private final int start;
+    private final int end;
+    private final int length;
+    private final int hash;
+    // Whether the label is already normalized, e.g. because it can contain non-ASCII characters
+    private final boolean normalized;
+
+    private NormalizedLabel(CharSequence label, int start, int end, int length, int hash, boolean normalized) {
+        this.label = label;
+        this.start = start;
+        this.end = end;
+        this.length = length;
+        this.hash = hash;
+        this.normalized = normalized;
+    }
+
+    /**
+     * @return the normalized label, or {@code null} if the label contains non-ASCII characters, which need full
+     * Unicode case folding
+     */
+    public static NormalizedLabel of(CharSequence label) {
+        // Trim the same way as String.trim
+        int start = 0;
+        int end = label.length();
+        while (start < end && label.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && label.charAt(end - 1) <= ' ') {
+            end--;
+        }
+
+        int length = 0;
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            char c = label.charAt(i);
+            if (c >= 0x80) {
+                return null;
+            }
+            if (isCollapsedWhitespace(c)) {
+                i = skipCollapsedWhitespace(label, i);
+                c = ' ';
+            } else {
+                c = toUpperCase(c);
+            }
+            hash = 31 * hash + c;
+            length++;
+        }
+        return new NormalizedLabel(label, start, end, length, hash, false);
+    }
+
+    /**
+     * @param normalized a label that is already normalized, see {@link Escaping#normalizeLabelContent}
+     * @return the label, equal to the result of {@link #of} for labels with the same normalized form
+     */
+    public static NormalizedLabel ofNormalized(String normalized) {
+        return new NormalizedLabel(normalized, 0, normalized.length(), normalized.length(), normalized.hashCode(), true);
+    }
+
+    /**
+     * @return whether the label is empty after normalizing (only contains whitespace), for any label
+     */
+    public static boolean isEmpty(CharSequence label) {
+        for (int i = 0; i < label.length(); i++) {
+            if (label.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof NormalizedLabel)) {
+            return false;
+        }
+        NormalizedLabel other = (NormalizedLabel) o;
+        if (hash != other.hash || length != other.length) {
+            return false;
+        }
+        int i = start;
+        int j = other.start;
+        for (int k = 0; k < length; k++) {
+            if (charAt(i) != other.charAt(j)) {
+                return false;
+            }
+            i = nextIndex(i);
+            j = other.nextIndex(j);
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    /**
+     * @return the normalized label as a String
+     */
+    @Override
+    public String toString() {
+        if (normalized) {
+            return (String) label;
+        }
+        char[] chars = new char[length];
+        int i = start;
+        for (int k = 0; k < length; k++) {
+            chars[k] = charAt(i);
+            i = nextIndex(i);
+        }
+        return new String(chars);
+    }
+
+    /**
+     * @return the normalized character for the character at index {@code i} of the label
+     */
+    private char charAt(int i) {
+        char c = label.charAt(i);
+        if (normalized) {
+            return c;
+        }
+        return isCollapsedWhitespace(c) ? ' ' : toUpperCase(c);
+    }
+
+    /**
+     * @return the index of the character after the one at {@code i}, skipping collapsed whitespace
+     */
+    private int nextIndex(int i) {
+        if (!normalized && isCollapsedWhitespace(label.charAt(i))) {
+            return skipCollapsedWhitespace(label, i) + 1;
+        }
+        return i + 1;
+    }
+
+    private static boolean isCollapsedWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\r' || c == '\n';
+    }
+
+    /**
+     * @return the index of the last whitespace character of the run starting at {@code i}
+     */
+    private static int skipCollapsedWhitespace(CharSequence s, int i) {
+        // The label is trimmed, so a run never reaches the end
+        while (isCollapsedWhitespace(s.charAt(i + 1))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static char toUpperCase(char c) {
+        // For ASCII, lower case and then upper case (see Escaping.normalizeLabelContent) is just upper case
+        return c >= 'a' && c <= 'z' ? (char) (c - ('a' - 'A')) : c;
+    }
+}
@@ -0,0 +1,91 @@
+package org.commonmark.internal.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads lines from UTF-8 encoded bytes without decoding all of them first.
+ * <p>
+ * Lines are split on the bytes of the line terminators, which can't be part of multibyte sequences in UTF-8. A line
+ * that only contains ASCII is returned as an {@link AsciiView} of the bytes, so it's neither decoded nor copied. Other
+ * lines are decoded into Strings, replacing malformed input with {@code U+FFFD}.
+ * <p>
+ * The bytes are read with absolute gets, so the position of the buffer is not changed. They must not be modified
+ * while the returned lines are in use.
+ */
+public class Utf8LineReader implements LineSource {
+
+    private final ByteBuffer input;
+    private final int end;
+
+    private int position;
+    private String lineTerminator = null;
+
+    public Utf8LineReader(ByteBuffer input) {
+        this.input = input;
+        this.position = input.position();
+        this.end = input.limit();
+    }
+
+    @Override
+    public CharSequence readLineView() {
+        if (position >= end) {
+            lineTerminator = null;
+            return null;
+        }
+
+        int start = position;
+        // Negative if any of the bytes is not ASCII
+        int bits = 0;
+        for (int i = start; i < end; i++) {
+            byte b = input.get(i);
+            if (b == '\n') {
+                position = i + 1;
+                return line(start, i, bits, "\n");
+            } else if (b == '\r') {
+                if (i + 1 < end && input.get(i + 1) == '\n') {
+                    position = i + 2;
+                    return line(start, i, bits, "\r\n");
+                } else {
+                    position = i + 1;
+                    return line(start, i, bits, "\r");
+                }
+            }
+            bits |= b;
+        }
+        position = end;
+        return line(start, end, bits, null);
+    }
+
+    @Override
+    public String getLineTerminator() {
+        return lineTerminator;
+    }
+
+    /**
+     * Skip a UTF-8 encoded byte order mark (U+FEFF) at the current position if there is one.
+     */
+    @Override
+    public void skipByteOrderMark() {
+        if (end - position >= 3 && input.get(position) == (byte) 0xEF && input.get(position + 1) == (byte) 0xBB &&
+                input.get(position + 2) == (byte) 0xBF) {
+            position += 3;
+        }
+    }
+
+    private CharSequence line(int start, int end, int bits, String lineTerminator) {
+        this.lineTerminator = lineTerminator;
+        if (bits >= 0) {
+            return AsciiView.of(input, start, end);
+        }
+        int length = end - start;
+        if (input.hasArray()) {
+            return new String(input.array(), input.arrayOffset() + start, length, StandardCharsets.UTF_8);
+        }
+        byte[] bytes = new byte[length];
+        ByteBuffer slice = input.duplicate();
+        slice.position(start);
+        slice.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -1,15 +1,50 @@
 package org.commonmark.node;
 
+import org.commonmark.internal.PendingInlines;
+
 /**
  * Block nodes such as paragraphs, list blocks, code blocks etc.
  */
 public abstract class Block extends Node {
 
+    static {
+        PendingInlines.setBlockAccess((block, pendingInlines) -> block.pendingInlines = pendingInlines,
+                block -> block.pendingInlines);
+    }
+
+    // Inline content that is parsed on first access, see PendingInlines. Volatile so that a thread that sees null also
+    // sees the children that were added before it was cleared.
+    private volatile PendingInlines pendingInlines;
+
     @Override
     public Block getParent() {
         return (Block) super.getParent();
     }
 
+    @Override
+    public Node getFirstChild() {
+        parsePendingInlines();
+        return super.getFirstChild();
+    }
+
+    @Override
+    public Node getLastChild() {
+        parsePendingInlines();
+        return super.getLastChild();
+    }
+
+    @Override
+    public void appendChild(Node child) {
+        parsePendingInlines();
+        super.appendChild(child);
+    }
+
+    @Override
+    public void prependChild(Node child) {
+        parsePendingInlines();
+        super.prependChild(child);
+    }
+
     @Override
     protected void setParent(Node parent) {
         if (!(parent instanceof Block)) {
@@ -17,4 +52,11 @@ public abstract class Block extends Node {
         }
         super.setParent(parent);
     }
+
+    private void parsePendingInlines() {
+        var pending = pendingInlines;
+        if (pending != null && pending.parse()) {
+            pendingInlines = null;
+        }
+    }
 }
@@ -1,8 +1,11 @@
 package org.commonmark.node;
 
 import org.commonmark.internal.util.Escaping;
+import org.commonmark.internal.util.NormalizedLabel;
 
+import java.util.AbstractSet;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
@@ -16,8 +19,9 @@ import java.util.Set;
 public class DefinitionMap<D> {
 
     private final Class<D> type;
-    // LinkedHashMap for determinism and to preserve document order
-    private final Map<String, D> definitions = new LinkedHashMap<>();
+    // LinkedHashMap for determinism and to preserve document order. The keys are the normalized labels, so that ASCII
+    // labels can be looked up without creating the normalized String.
+    private final Map<NormalizedLabel, D> definitions = new LinkedHashMap<>();
 
     public DefinitionMap(Class<D> type) {
         this.type = type;
@@ -41,7 +45,8 @@ public class DefinitionMap<D> {
      * The label is normalized by the definition map before storing.
      */
     public D putIfAbsent(String label, D definition) {
-        String normalizedLabel = Escaping.normalizeLabelContent(label);
+        // Not NormalizedLabel.of, which would keep the label (e.g. a view of the input) instead of the normalized form
+        NormalizedLabel normalizedLabel = NormalizedLabel.ofNormalized(Escaping.normalizeLabelContent(label));
 
         // spec: When there are multiple matching link reference definitions, the first is used
         return definitions.putIfAbsent(normalizedLabel, definition);
@@ -53,12 +58,54 @@ public class DefinitionMap<D> {
      * @return the value or null
      */
     public D get(String label) {
-        String normalizedLabel = Escaping.normalizeLabelContent(label);
-        return definitions.get(normalizedLabel);
+        if (definitions.isEmpty()) {
+            // Common for shortcut links like `[foo]` in documents without definitions
+            return null;
+        }
+        // For ASCII labels, look up without creating the normalized String
+        NormalizedLabel key = NormalizedLabel.of(label);
+        if (key == null) {
+            key = NormalizedLabel.ofNormalized(Escaping.normalizeLabelContent(label));
+        }
+        return definitions.get(key);
     }
 
+    /**
+     * @return the normalized labels, backed by the map
+     */
     public Set<String> keySet() {
-        return definitions.keySet();
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<String> iterator() {
+                Iterator<NormalizedLabel> keys = definitions.keySet().iterator();
+                return new Iterator<>() {
+                    @Override
+                    public boolean hasNext() {
+                        return keys.hasNext();
+                    }
+
+                    @Override
+                    public String next() {
+                        return keys.next().toString();
+                    }
+
+                    @Override
+                    public void remove() {
+                        keys.remove();
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return definitions.size();
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return o instanceof String && definitions.containsKey(NormalizedLabel.ofNormalized((String) o));
+            }
+        };
     }
 
     public Collection<D> values() {
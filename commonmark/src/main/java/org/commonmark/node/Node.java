@@ -1,6 +1,7 @@
 package org.commonmark.node;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -16,7 +17,12 @@ public abstract class Node {
     private Node lastChild = null;
     private Node prev = null;
     private Node next = null;
-    private List<SourceSpan> sourceSpans = null;
+    /**
+     * Source spans packed as line index, column index, input index and length, so that a node with spans doesn't need a
+     * list and a {@link SourceSpan} object per span. The objects are only created when they are asked for.
+     */
+    private int[] sourceSpans = null;
+    private int sourceSpanCount = 0;
 
     public abstract void accept(Visitor visitor);
 
@@ -121,11 +127,41 @@ public abstract class Node {
     }
 
     /**
+     * Note that the list is created on each call, so that nodes don't keep it; use {@link #getSourceSpanCount()} and
+     * {@link #getSourceSpan(int)} to avoid that.
+     *
      * @return the source spans of this node if included by the parser, an empty list otherwise
      * @since 0.16.0
      */
     public List<SourceSpan> getSourceSpans() {
-        return sourceSpans != null ? Collections.unmodifiableList(sourceSpans) : List.of();
+        if (sourceSpanCount == 0) {
+            return List.of();
+        }
+        var list = new ArrayList<SourceSpan>(sourceSpanCount);
+        for (int i = 0; i < sourceSpanCount; i++) {
+            list.add(createSourceSpan(i));
+        }
+        return Collections.unmodifiableList(list);
+    }
+
+    /**
+     * @return the number of source spans of this node, the same as {@code getSourceSpans().size()} but without
+     * creating the list
+     */
+    public int getSourceSpanCount() {
+        return sourceSpanCount;
+    }
+
+    /**
+     * @param index the index of the source span, from 0 to {@link #getSourceSpanCount()} (exclusive)
+     * @return the source span at the index, the same as {@code getSourceSpans().get(index)} but without creating the
+     * list
+     */
+    public SourceSpan getSourceSpan(int index) {
+        if (index < 0 || index >= sourceSpanCount) {
+            throw new IndexOutOfBoundsException("index " + index + " out of bounds for " + sourceSpanCount + " source spans");
+        }
+        return createSourceSpan(index);
     }
 
     /**
@@ -135,24 +171,49 @@ public abstract class Node {
      * @since 0.16.0
      */
     public void setSourceSpans(List<SourceSpan> sourceSpans) {
+        this.sourceSpanCount = 0;
         if (sourceSpans.isEmpty()) {
             this.sourceSpans = null;
         } else {
-            this.sourceSpans = new ArrayList<>(sourceSpans);
+            this.sourceSpans = new int[sourceSpans.size() * 4];
+            for (SourceSpan sourceSpan : sourceSpans) {
+                putSourceSpan(sourceSpan);
+            }
         }
     }
 
     /**
      * Add a source span to the end of the list.
      *
-     * @param sourceSpan the source span to add
+     * @param sourceSpan the source span to add; {@code null} is ignored (it used to be added to the list)
      * @since 0.16.0
      */
     public void addSourceSpan(SourceSpan sourceSpan) {
+        if (sourceSpan == null) {
+            // Can happen when spans are disabled and a parser passes on the span of a line without checking
+            return;
+        }
         if (sourceSpans == null) {
-            this.sourceSpans = new ArrayList<>();
+            this.sourceSpans = new int[4];
+        } else if (sourceSpanCount * 4 == sourceSpans.length) {
+            // Blocks get a span per line, so grow like a list would
+            this.sourceSpans = Arrays.copyOf(sourceSpans, sourceSpans.length * 2);
         }
-        this.sourceSpans.add(sourceSpan);
+        putSourceSpan(sourceSpan);
+    }
+
+    private SourceSpan createSourceSpan(int index) {
+        int i = index * 4;
+        return SourceSpan.of(sourceSpans[i], sourceSpans[i + 1], sourceSpans[i + 2], sourceSpans[i + 3]);
+    }
+
+    private void putSourceSpan(SourceSpan sourceSpan) {
+        int i = sourceSpanCount * 4;
+        sourceSpans[i] = sourceSpan.getLineIndex();
+        sourceSpans[i + 1] = sourceSpan.getColumnIndex();
+        sourceSpans[i + 2] = sourceSpan.getInputIndex();
+        sourceSpans[i + 3] = sourceSpan.getLength();
+        sourceSpanCount++;
     }
 
     @Override
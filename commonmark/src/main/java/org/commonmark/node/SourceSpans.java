@@ -22,7 +22,22 @@ public class SourceSpans {
 
     public void addAllFrom(Iterable<? extends Node> nodes) {
         for (Node node : nodes) {
-            addAll(node.getSourceSpans());
+            addFrom(node);
+        }
+    }
+
+    /**
+     * Add the source spans of the node, without creating a list of them first.
+     */
+    public void addFrom(Node node) {
+        int count = node.getSourceSpanCount();
+        if (count == 0) {
+            return;
+        }
+        // Same as addAll: only the first span can be merged with the existing ones
+        merge(node.getSourceSpan(0));
+        for (int i = 1; i < count; i++) {
+            sourceSpans.add(node.getSourceSpan(i));
         }
     }
 
@@ -49,4 +64,19 @@ public class SourceSpans {
             }
         }
     }
+
+    private void merge(SourceSpan sourceSpan) {
+        if (sourceSpans == null) {
+            sourceSpans = new ArrayList<>();
+        }
+        int lastIndex = sourceSpans.size() - 1;
+        if (lastIndex >= 0) {
+            SourceSpan a = sourceSpans.get(lastIndex);
+            if (a.getInputIndex() + a.getLength() == sourceSpan.getInputIndex()) {
+                sourceSpans.set(lastIndex, SourceSpan.of(a.getLineIndex(), a.getColumnIndex(), a.getInputIndex(), a.getLength() + sourceSpan.getLength()));
+                return;
+            }
+        }
+        sourceSpans.add(sourceSpan);
+    }
 }
@@ -12,7 +12,7 @@ package org.commonmark.node;
  */
 public class Text extends Node {
 
-    private String literal;
+    private CharSequence literal;
 
     public Text() {
     }
@@ -21,12 +21,41 @@ public class Text extends Node {
         this.literal = literal;
     }
 
+    /**
+     * Create a text node whose literal is only turned into a String when {@link #getLiteral()} is called, see
+     * {@link #getLiteralSequence()}.
+     *
+     * @param literal the literal, e.g. a view of the parser input
+     * @return the text node
+     */
+    public static Text ofSequence(CharSequence literal) {
+        Text text = new Text();
+        text.literal = literal;
+        return text;
+    }
+
     @Override
     public void accept(Visitor visitor) {
         visitor.visit(this);
     }
 
+    /**
+     * @return the literal as a String; note that if the literal was set with {@link #ofSequence} or
+     * {@link #setLiteralSequence}, a new String is created on each call, so prefer {@link #getLiteralSequence()} where
+     * a {@link CharSequence} is enough
+     */
     public String getLiteral() {
+        return literal != null ? literal.toString() : null;
+    }
+
+    /**
+     * Get the literal without turning it into a String. With
+     * {@link org.commonmark.parser.Parser.Builder#lazyTextLiterals(boolean)}, the literal can be a view of the
+     * parser input, so that renderers can write it without copying it.
+     *
+     * @return the literal, either the String or the character sequence it was set to
+     */
+    public CharSequence getLiteralSequence() {
         return literal;
     }
 
@@ -34,6 +63,14 @@ public class Text extends Node {
         this.literal = literal;
     }
 
+    /**
+     * Set the literal to a character sequence, which is only turned into a String when {@link #getLiteral()} is
+     * called.
+     */
+    public void setLiteralSequence(CharSequence literal) {
+        this.literal = literal;
+    }
+
     @Override
     protected String toStringAttributes() {
         return "literal=" + literal;
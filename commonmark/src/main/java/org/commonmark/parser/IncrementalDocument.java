@@ -0,0 +1,228 @@
+package org.commonmark.parser;
+
+import org.commonmark.internal.Definitions;
+import org.commonmark.internal.DocumentParser;
+import org.commonmark.internal.PendingInlines;
+import org.commonmark.node.Document;
+import org.commonmark.node.Node;
+import org.commonmark.node.SourceSpan;
+
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A parsed document that can be updated with edits of its input, see {@link Parser#parseIncremental(String)}.
+ * Example:
+ * <pre><code>
+ * IncrementalDocument incremental = parser.parseIncremental("# Title\n\nSome text\n");
+ * // Replace "Some" with "More"
+ * Document document = incremental.edit(9, 13, "More");
+ * </code></pre>
+ * An edit only reparses the top-level blocks that it affects, which are found using their source spans. Parsing
+ * starts at the block before the edit (because an edit can change where the previous block ends) and stops at the
+ * first line after the edit that starts a top-level block which also started there before the edit. The new blocks
+ * replace the old ones in the same {@link Document} instance, and the source spans of the blocks after them are
+ * shifted.
+ * <p>
+ * If the reparsed part of the input contains definitions (e.g. link reference definitions) before or after the edit,
+ * the whole input is parsed again, because definitions can change the inline content of any block.
+ * <p>
+ * Apart from parsing, an edit still takes time linear in the size of the document for: building the new input string,
+ * walking the top-level blocks up to the edit, and shifting the source spans of all nodes after the edit. With
+ * {@link Parser.Builder#lazyInlineParsing lazy inline parsing}, inline content that is not parsed yet is not parsed for
+ * shifting, its source spans are shifted when it's parsed.
+ * <p>
+ * Post-processors are called for each reparsed block separately.
+ * <p>
+ * This class is not thread-safe.
+ */
+public class IncrementalDocument {
+
+    private final Parser parser;
+    private final IncludeSourceSpans includeSourceSpans;
+    private final Document document = new Document();
+
+    private String input;
+    private Definitions definitions;
+
+    IncrementalDocument(Parser parser, String input) {
+        this.parser = parser;
+        // Source spans of blocks are needed to find the blocks affected by an edit
+        this.includeSourceSpans = parser.getIncludeSourceSpans() == IncludeSourceSpans.NONE ?
+                IncludeSourceSpans.BLOCKS : parser.getIncludeSourceSpans();
+        parseAll(input);
+    }
+
+    /**
+     * @return the document, which is the same instance after edits
+     */
+    public Document getDocument() {
+        return document;
+    }
+
+    /**
+     * @return the current input text, including all edits
+     */
+    public String getInput() {
+        return input;
+    }
+
+    /**
+     * Replace the input from {@code start} (inclusive) to {@code end} (exclusive) with {@code replacement} and update
+     * the document.
+     *
+     * @param start       the start index of the replaced input
+     * @param end         the end index of the replaced input, same as start for an insertion
+     * @param replacement the replacement text, empty for a deletion - must not be null
+     * @return the updated document
+     */
+    public Document edit(int start, int end, String replacement) {
+        Objects.requireNonNull(replacement, "replacement must not be null");
+        if (start < 0 || start > end || end > input.length()) {
+            throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + input.length());
+        }
+
+        String newInput = input.substring(0, start) + replacement + input.substring(end);
+        int delta = replacement.length() - (end - start);
+
+        // Find the first block that the edit touches. The one before it could also change, e.g. by getting lazy
+        // continuation lines or if it was ended by the edited block. The blocks before that can't change.
+        Node previous = null;
+        Node first = document.getFirstChild();
+        while (first != null) {
+            if (first.getSourceSpanCount() == 0) {
+                // We don't know where this block is (e.g. it was added by a post-processor)
+                parseAll(newInput);
+                return document;
+            }
+            if (getEnd(first) >= start) {
+                break;
+            }
+            previous = first;
+            first = first.getNext();
+        }
+        Node restart = previous != null ? previous : first;
+        int restartIndex = 0;
+        int restartLineIndex = 0;
+        if (restart != null && getLineStart(restart) <= start) {
+            restartIndex = getLineStart(restart);
+            restartLineIndex = restart.getSourceSpan(0).getLineIndex();
+        }
+
+        // Stop at a line after the edit where an old block started. If only the document is open when we get there,
+        // parsing from there on will result in the same blocks as before.
+        int newEditEnd = start + replacement.length();
+        OldBlockStarts oldBlockStarts = new OldBlockStarts(restart);
+        DocumentParser documentParser = parser.createDocumentParser(includeSourceSpans);
+        int stop = documentParser.parseRange(newInput, restartIndex, restartLineIndex,
+                index -> index >= newEditEnd && oldBlockStarts.startsAt(index - delta));
+        documentParser.closeBlocks();
+        if (oldBlockStarts.unknownPosition) {
+            parseAll(newInput);
+            return document;
+        }
+        Node reused = stop < newInput.length() ? oldBlockStarts.next : null;
+
+        Set<Node> replaced = new HashSet<>();
+        for (Node node = restart; node != reused; node = node.getNext()) {
+            replaced.add(node);
+        }
+
+        // Definitions can be used anywhere in the document, so adding or removing them needs a full parse
+        if (!documentParser.getDefinitions().isEmpty() || definitions.anyWithin(replaced)) {
+            parseAll(newInput);
+            return document;
+        }
+
+        Document parsed = documentParser.finalizeAndProcess(definitions);
+
+        for (Node node : replaced) {
+            node.unlink();
+        }
+        Node node = parsed.getFirstChild();
+        while (node != null) {
+            Node next = node.getNext();
+            node.unlink();
+            Node block = parser.postProcess(node);
+            if (reused != null) {
+                reused.insertBefore(block);
+            } else {
+                document.appendChild(block);
+            }
+            node = next;
+        }
+
+        if (reused != null) {
+            int lineDelta = documentParser.getNextLineIndex() - reused.getSourceSpan(0).getLineIndex();
+            if (delta != 0 || lineDelta != 0) {
+                for (Node block = reused; block != null; block = block.getNext()) {
+                    PendingInlines.shiftSourceSpans(block, delta, lineDelta);
+                }
+            }
+        }
+
+        input = newInput;
+        return document;
+    }
+
+    private void parseAll(String input) {
+        DocumentParser documentParser = parser.createDocumentParser(includeSourceSpans);
+        Node parsed = parser.postProcess(documentParser.parse(input));
+
+        Node node = document.getFirstChild();
+        while (node != null) {
+            Node next = node.getNext();
+            node.unlink();
+            node = next;
+        }
+        node = parsed.getFirstChild();
+        while (node != null) {
+            Node next = node.getNext();
+            document.appendChild(node);
+            node = next;
+        }
+
+        this.definitions = documentParser.getDefinitions();
+        this.input = input;
+    }
+
+    private static int getLineStart(Node block) {
+        SourceSpan first = block.getSourceSpan(0);
+        return first.getInputIndex() - first.getColumnIndex();
+    }
+
+    private static int getEnd(Node block) {
+        SourceSpan last = block.getSourceSpan(block.getSourceSpanCount() - 1);
+        return last.getInputIndex() + last.getLength();
+    }
+
+    /**
+     * Walks the old top-level blocks in order, to find the one that starts at an index. The indexes passed to it must
+     * be increasing.
+     */
+    private static class OldBlockStarts {
+
+        private Node next;
+        private boolean unknownPosition;
+
+        OldBlockStarts(Node first) {
+            this.next = first;
+        }
+
+        boolean startsAt(int index) {
+            while (next != null && !unknownPosition) {
+                if (next.getSourceSpanCount() == 0) {
+                    unknownPosition = true;
+                    return false;
+                }
+                int lineStart = getLineStart(next);
+                if (lineStart >= index) {
+                    return lineStart == index;
+                }
+                next = next.getNext();
+            }
+            return false;
+        }
+    }
+}
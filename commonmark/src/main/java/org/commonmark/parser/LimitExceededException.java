@@ -0,0 +1,14 @@
+package org.commonmark.parser;
+
+/**
+ * Thrown when parsing input exceeds one of the limits configured on {@link Parser.Builder}, e.g.
+ * {@link Parser.Builder#maxNodes(int)} or {@link Parser.Builder#maxLineLength(int)}.
+ */
+public class LimitExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public LimitExceededException(String message) {
+        super(message);
+    }
+}
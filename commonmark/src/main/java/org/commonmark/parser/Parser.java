@@ -1,10 +1,19 @@
 package org.commonmark.parser;
 
+import org.commonmark.Cancellation;
 import org.commonmark.Extension;
+import org.commonmark.internal.BlockParserFactoryTable;
+import org.commonmark.internal.ChunkedDocumentParser;
 import org.commonmark.internal.Definitions;
+import org.commonmark.internal.DelimiterProcessorTable;
 import org.commonmark.internal.DocumentParser;
 import org.commonmark.internal.InlineParserContextImpl;
 import org.commonmark.internal.InlineParserImpl;
+import org.commonmark.internal.ParseLimits;
+import org.commonmark.internal.RawTextInlineParser;
+import org.commonmark.internal.util.LineReader;
+import org.commonmark.internal.util.LineSource;
+import org.commonmark.internal.util.Utf8LineReader;
 import org.commonmark.node.*;
 import org.commonmark.parser.beta.LinkInfo;
 import org.commonmark.parser.beta.LinkProcessor;
@@ -14,8 +23,22 @@ import org.commonmark.parser.block.BlockParserFactory;
 import org.commonmark.parser.delimiter.DelimiterProcessor;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
 
 
 /**
@@ -29,30 +52,53 @@ import java.util.*;
  */
 public class Parser {
 
-    private final List<BlockParserFactory> blockParserFactories;
+    private final BlockParserFactoryTable blockParserFactories;
     private final List<InlineContentParserFactory> inlineContentParserFactories;
-    private final List<DelimiterProcessor> delimiterProcessors;
+    private final DelimiterProcessorTable delimiterProcessors;
     private final List<LinkProcessor> linkProcessors;
     private final Set<Character> linkMarkers;
     private final InlineParserFactory inlineParserFactory;
     private final List<PostProcessor> postProcessors;
     private final IncludeSourceSpans includeSourceSpans;
+    private final ForkJoinPool inlineParsingPool;
+    private final int parallelInlineParsingThreshold;
+    private final ForkJoinPool blockParsingPool;
+    private final int minChunkSize;
+    private final boolean lazyInlineParsing;
+    private final boolean lazyTextLiterals;
+    private final ParseLimits limits;
+    private final int readBufferSize;
+    private final Definitions sharedDefinitions;
 
     private Parser(Builder builder) {
-        this.blockParserFactories = DocumentParser.calculateBlockParserFactories(builder.blockParserFactories, builder.enabledBlockTypes);
-        this.inlineParserFactory = builder.getInlineParserFactory();
+        this.blockParserFactories = new BlockParserFactoryTable(
+                DocumentParser.calculateBlockParserFactories(builder.blockParserFactories, builder.enabledBlockTypes));
+        this.inlineParserFactory = builder.inlineParsing ?
+                builder.getInlineParserFactory() : context -> new RawTextInlineParser();
         this.postProcessors = builder.postProcessors;
         this.inlineContentParserFactories = builder.inlineContentParserFactories;
-        this.delimiterProcessors = builder.delimiterProcessors;
+        this.delimiterProcessors = new DelimiterProcessorTable(builder.delimiterProcessors);
         this.linkProcessors = builder.linkProcessors;
         this.linkMarkers = builder.linkMarkers;
         this.includeSourceSpans = builder.includeSourceSpans;
+        this.inlineParsingPool = builder.inlineParsingPool;
+        this.parallelInlineParsingThreshold = builder.parallelInlineParsingThreshold;
+        this.blockParsingPool = builder.blockParsingPool;
+        this.minChunkSize = builder.minChunkSize;
+        this.lazyInlineParsing = builder.lazyInlineParsing;
+        this.lazyTextLiterals = builder.lazyTextLiterals;
+        this.limits = new ParseLimits(builder.maxNestingDepth, builder.maxNodes, builder.maxInlineStackDepth,
+                builder.maxLineLength);
+        this.readBufferSize = builder.readBufferSize;
+        this.sharedDefinitions = new Definitions();
+        for (var definitionMap : builder.definitions) {
+            // Copy so that changes to the map after building don't affect the parser (and it stays thread-safe)
+            sharedDefinitions.addDefinitions(copyOf(definitionMap));
+        }
 
         // Try to construct an inline parser. Invalid configuration might result in an exception, which we want to
         // detect as soon as possible.
-        var context = new InlineParserContextImpl(
-                inlineContentParserFactories, delimiterProcessors, linkProcessors, linkMarkers, new Definitions());
-        this.inlineParserFactory.create(context);
+        createInlineParser(createInlineParserContext());
     }
 
     /**
@@ -74,9 +120,34 @@ public class Parser {
      */
     public Node parse(String input) {
         Objects.requireNonNull(input, "input must not be null");
-        DocumentParser documentParser = createDocumentParser();
-        Node document = documentParser.parse(input);
-        return postProcess(document);
+        return parse(input, (Cancellation) null);
+    }
+
+    /**
+     * Parse the specified input text into a tree of nodes, stopping with a {@link CancellationException} when the
+     * cancellation token is cancelled, see {@link Cancellation}.
+     * <p>
+     * This method is thread-safe (a new parser state is used for each invocation).
+     *
+     * @param input        the text to parse - must not be null
+     * @param cancellation the token for cancelling this call, or null
+     * @return the root node
+     */
+    public Node parse(String input, Cancellation cancellation) {
+        Objects.requireNonNull(input, "input must not be null");
+        Node document;
+        if (blockParsingPool != null) {
+            document = new ChunkedDocumentParser(nodeCounter -> {
+                var documentParser = createDocumentParser(includeSourceSpans, nodeCounter);
+                documentParser.setCancellation(cancellation);
+                return documentParser;
+            }, limits.newNodeCounter(), blockParsingPool, minChunkSize, sharedDefinitions).parse(input);
+        } else {
+            DocumentParser documentParser = createDocumentParser();
+            documentParser.setCancellation(cancellation);
+            document = documentParser.parse(input);
+        }
+        return postProcess(document, cancellation);
     }
 
     /**
@@ -89,7 +160,7 @@ public class Parser {
      * }
      * </code></pre>
      * Note that if you have a file with a byte order mark (BOM), you need to skip it before handing the reader to this
-     * library. There's existing classes that do that, e.g. see {@code BOMInputStream} in Commons IO.
+     * library, or use {@link #parse(Path)} or {@link #parse(InputStream, Charset)} which skip it.
      * <p>
      * This method is thread-safe (a new parser state is used for each invocation).
      *
@@ -99,18 +170,279 @@ public class Parser {
      */
     public Node parseReader(Reader input) throws IOException {
         Objects.requireNonNull(input, "input must not be null");
+        return parseReader(input, (Cancellation) null);
+    }
+
+    /**
+     * Parse the specified reader into a tree of nodes, stopping with a {@link CancellationException} when the
+     * cancellation token is cancelled, see {@link Cancellation} and {@link #parseReader(Reader)}.
+     * <p>
+     * This method is thread-safe (a new parser state is used for each invocation).
+     *
+     * @param input        the reader to parse - must not be null
+     * @param cancellation the token for cancelling this call, or null
+     * @return the root node
+     * @throws IOException when reading throws an exception
+     */
+    public Node parseReader(Reader input, Cancellation cancellation) throws IOException {
+        Objects.requireNonNull(input, "input must not be null");
+        DocumentParser documentParser = createDocumentParser();
+        documentParser.setCancellation(cancellation);
+        Node document = documentParser.parse(newLineReader(input));
+        return postProcess(document, cancellation);
+    }
+
+    /**
+     * Parse the specified input text into a tree of nodes, but stop after the top-level block for which
+     * {@code stopCondition} returns true. The rest of the input is not parsed, and the document is finalized as if the
+     * input ended after that block. This is useful when only the beginning of a document is needed, e.g. for a preview.
+     * <p>
+     * This method is thread-safe (a new parser state is used for each invocation).
+     *
+     * @param input         the text to parse - must not be null
+     * @param stopCondition the condition for stopping, see {@link StopCondition} - must not be null
+     * @return the root node
+     */
+    public Node parse(String input, StopCondition stopCondition) {
+        Objects.requireNonNull(input, "input must not be null");
+        Objects.requireNonNull(stopCondition, "stopCondition must not be null");
         DocumentParser documentParser = createDocumentParser();
+        documentParser.setStopCondition(stopCondition);
         Node document = documentParser.parse(input);
         return postProcess(document);
     }
 
-    private DocumentParser createDocumentParser() {
+    /**
+     * Parse the specified reader into a tree of nodes, but stop after the top-level block for which
+     * {@code stopCondition} returns true. No further input is read from the reader, and the document is finalized as if
+     * the input ended after that block. The caller is responsible for closing the reader.
+     * <p>
+     * This method is thread-safe (a new parser state is used for each invocation).
+     *
+     * @param input         the reader to parse - must not be null
+     * @param stopCondition the condition for stopping, see {@link StopCondition} - must not be null
+     * @return the root node
+     * @throws IOException when reading throws an exception
+     */
+    public Node parseReader(Reader input, StopCondition stopCondition) throws IOException {
+        Objects.requireNonNull(input, "input must not be null");
+        Objects.requireNonNull(stopCondition, "stopCondition must not be null");
+        DocumentParser documentParser = createDocumentParser();
+        documentParser.setStopCondition(stopCondition);
+        Node document = documentParser.parse(newLineReader(input));
+        return postProcess(document);
+    }
+
+    /**
+     * Parse the specified UTF-8 file into a tree of nodes. A byte order mark (BOM) at the start of the file is skipped.
+     * <p>
+     * The file is memory-mapped and parsed like with {@link #parseUtf8(ByteBuffer)}, so its content is never read
+     * into a separate buffer or String first. Malformed input is replaced with {@code U+FFFD}. The file must not be
+     * modified or truncated while it is parsed.
+     * <p>
+     * With {@link Builder#lazyInlineParsing} or {@link Builder#lazyTextLiterals}, nodes still read the input after this
+     * method returns. The file is then read into memory instead of being mapped, so that the document doesn't depend on
+     * the file anymore once this method returns.
+     * <p>
+     * This method is thread-safe (a new parser state is used for each invocation).
+     *
+     * @param path the file to parse - must not be null
+     * @return the root node
+     * @throws IOException when opening or reading the file throws an exception
+     */
+    public Node parse(Path path) throws IOException {
+        Objects.requireNonNull(path, "path must not be null");
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size <= Integer.MAX_VALUE) {
+                ByteBuffer buffer;
+                if (lazyInlineParsing || lazyTextLiterals) {
+                    // The nodes keep views of the input, which must not be the mapping: changing the file would change
+                    // their text, and truncating it would make accessing them fail
+                    buffer = ByteBuffer.allocate((int) size);
+                    while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                        // Read until the buffer is full or the file ends
+                    }
+                    buffer.flip();
+                } else {
+                    buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                }
+                return parseLines(new Utf8LineReader(buffer));
+            } else {
+                // Too big for a single mapped buffer, decode from the channel instead
+                CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                        .onMalformedInput(CodingErrorAction.REPLACE)
+                        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+                return parseLines(newLineReader(Channels.newReader(channel, decoder, -1)));
+            }
+        }
+    }
+
+    /**
+     * Parse the specified UTF-8 encoded input into a tree of nodes. A byte order mark (BOM) at the start of the input
+     * is skipped.
+     * <p>
+     * The input is not decoded into a String first. Lines that only contain ASCII characters are parsed directly on
+     * the bytes, and only the text of the resulting nodes is decoded. Other lines are decoded one at a time. Malformed
+     * input is replaced with {@code U+FFFD}. Source spans still use character indexes, same as when parsing the
+     * decoded input.
+     * <p>
+     * The input is read from its position to its limit without changing them. It must not be modified during
+     * parsing, and with {@link Builder#lazyInlineParsing} also not until the inlines of all blocks have been parsed.
+     * With {@link Builder#lazyTextLiterals}, it must not be modified while the document is in use.
+     * <p>
+     * This method is thread-safe (a new parser state is used for each invocation).
+     *
+     * @param input the bytes to parse - must not be null
+     * @return the root node
+     */
+    public Node parseUtf8(ByteBuffer input) {
+        Objects.requireNonNull(input, "input must not be null");
+        try {
+            return parseLines(new Utf8LineReader(input));
+        } catch (IOException e) {
+            // Can't happen, the input is in memory
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Parse the specified UTF-8 encoded input into a tree of nodes, see {@link #parseUtf8(ByteBuffer)}.
+     *
+     * @param input the bytes to parse - must not be null
+     * @return the root node
+     */
+    public Node parseUtf8(byte[] input) {
+        Objects.requireNonNull(input, "input must not be null");
+        return parseUtf8(ByteBuffer.wrap(input));
+    }
+
+    /**
+     * Parse the specified input stream into a tree of nodes. A byte order mark (BOM) at the start of the input is
+     * skipped. The caller is responsible for closing the stream.
+     * <p>
+     * The bytes are decoded while parsing, so the input is never read into a separate buffer or String first.
+     * Malformed input is replaced with {@code U+FFFD}.
+     * <p>
+     * This method is thread-safe (a new parser state is used for each invocation).
+     *
+     * @param input   the stream to parse - must not be null
+     * @param charset the charset of the input, e.g. {@link StandardCharsets#UTF_8} - must not be null
+     * @return the root node
+     * @throws IOException when reading throws an exception
+     */
+    public Node parse(InputStream input, Charset charset) throws IOException {
+        Objects.requireNonNull(input, "input must not be null");
+        Objects.requireNonNull(charset, "charset must not be null");
+        return parseLines(newLineReader(new InputStreamReader(input, charset)));
+    }
+
+    /**
+     * Parse the specified reader and pass each top-level block to {@code blockConsumer} as soon as it is complete,
+     * instead of returning the whole document at the end. Memory use is then bounded by the largest block instead of
+     * the size of the input. The caller is responsible for closing the reader.
+     * <p>
+     * The blocks are passed in document order without a parent, with their inline content parsed. Post-processors are
+     * called for each block separately. Note that besides blocks such as {@link Paragraph}, this also passes on
+     * {@link LinkReferenceDefinition} nodes.
+     * <p>
+     * Because the input after a block is not known when it is passed on, links can only use definitions that appear
+     * <em>before</em> them in the input. A link to a reference definition that only appears later is parsed as text
+     * (same as a link to an undefined reference), unlike with {@link #parseReader}.
+     * <p>
+     * This method is thread-safe (a new parser state is used for each invocation).
+     *
+     * @param input         the reader to parse - must not be null
+     * @param blockConsumer called with each top-level block - must not be null
+     * @throws IOException when reading throws an exception
+     */
+    public void parseBlocks(Reader input, Consumer<Node> blockConsumer) throws IOException {
+        Objects.requireNonNull(input, "input must not be null");
+        Objects.requireNonNull(blockConsumer, "blockConsumer must not be null");
+        DocumentParser documentParser = createDocumentParser();
+        documentParser.parseBlocks(newLineReader(input), block -> blockConsumer.accept(postProcess(block)));
+    }
+
+    private Node parseLines(LineSource lineSource) throws IOException {
+        lineSource.skipByteOrderMark();
+        DocumentParser documentParser = createDocumentParser();
+        Node document = documentParser.parse(lineSource);
+        return postProcess(document);
+    }
+
+    /**
+     * Parse the specified input text into a document that can be updated with edits of the input, reparsing only the
+     * blocks affected by an edit. See {@link IncrementalDocument}.
+     * <p>
+     * Source spans are always included for blocks, see {@link Builder#includeSourceSpans}.
+     *
+     * @param input the text to parse - must not be null
+     * @return the incremental document
+     */
+    public IncrementalDocument parseIncremental(String input) {
+        Objects.requireNonNull(input, "input must not be null");
+        return new IncrementalDocument(this, input);
+    }
+
+    /**
+     * Start a session for parsing multiple documents one after another, reusing parser state between them. See
+     * {@link ParserSession}.
+     *
+     * @return a new session
+     */
+    public ParserSession newSession() {
+        return new ParserSession(this);
+    }
+
+    DocumentParser createDocumentParser() {
+        return createDocumentParser(includeSourceSpans);
+    }
+
+    DocumentParser createDocumentParser(IncludeSourceSpans includeSourceSpans) {
+        return createDocumentParser(includeSourceSpans, limits.newNodeCounter());
+    }
+
+    private DocumentParser createDocumentParser(IncludeSourceSpans includeSourceSpans,
+                                                ParseLimits.NodeCounter nodeCounter) {
         return new DocumentParser(blockParserFactories, inlineParserFactory, inlineContentParserFactories,
-                delimiterProcessors, linkProcessors, linkMarkers, includeSourceSpans);
+                delimiterProcessors, linkProcessors, linkMarkers, includeSourceSpans,
+                inlineParsingPool, parallelInlineParsingThreshold, lazyInlineParsing, lazyTextLiterals, sharedDefinitions, limits, nodeCounter);
+    }
+
+    InlineParserContextImpl createInlineParserContext() {
+        return new InlineParserContextImpl(inlineContentParserFactories, delimiterProcessors, linkProcessors,
+                linkMarkers, lazyTextLiterals, new Definitions(sharedDefinitions), limits, limits.newNodeCounter(), null);
+    }
+
+    InlineParser createInlineParser(InlineParserContextImpl context) {
+        return inlineParserFactory.create(context);
+    }
+
+    private static <D> DefinitionMap<D> copyOf(DefinitionMap<D> definitionMap) {
+        var copy = new DefinitionMap<>(definitionMap.getType());
+        copy.addAll(definitionMap);
+        return copy;
+    }
+
+    LineReader newLineReader(Reader input) {
+        LineReader lineReader = new LineReader(input, readBufferSize);
+        lineReader.setLimits(limits);
+        return lineReader;
+    }
+
+    IncludeSourceSpans getIncludeSourceSpans() {
+        return includeSourceSpans;
+    }
+
+    Node postProcess(Node document) {
+        return postProcess(document, null);
     }
 
-    private Node postProcess(Node document) {
+    Node postProcess(Node document, Cancellation cancellation) {
         for (PostProcessor postProcessor : postProcessors) {
+            if (cancellation != null) {
+                cancellation.throwIfCancelled();
+            }
             document = postProcessor.process(document);
         }
         return document;
@@ -126,9 +458,22 @@ public class Parser {
         private final List<LinkProcessor> linkProcessors = new ArrayList<>();
         private final List<PostProcessor> postProcessors = new ArrayList<>();
         private final Set<Character> linkMarkers = new HashSet<>();
+        private final List<DefinitionMap<?>> definitions = new ArrayList<>();
         private Set<Class<? extends Block>> enabledBlockTypes = DocumentParser.getDefaultBlockParserTypes();
         private InlineParserFactory inlineParserFactory;
         private IncludeSourceSpans includeSourceSpans = IncludeSourceSpans.NONE;
+        private ForkJoinPool inlineParsingPool;
+        private int parallelInlineParsingThreshold;
+        private ForkJoinPool blockParsingPool;
+        private int minChunkSize;
+        private boolean inlineParsing = true;
+        private boolean lazyInlineParsing = false;
+        private boolean lazyTextLiterals = false;
+        private int maxNestingDepth = Integer.MAX_VALUE;
+        private int maxNodes = Integer.MAX_VALUE;
+        private int maxInlineStackDepth = Integer.MAX_VALUE;
+        private int maxLineLength = Integer.MAX_VALUE;
+        private int readBufferSize = 8192;
 
         /**
          * @return the configured {@link Parser}
@@ -200,6 +545,202 @@ public class Parser {
             return this;
         }
 
+        /**
+         * Parse inline content of blocks in parallel using the specified pool.
+         * <p>
+         * Inline parsing (emphasis, links, code spans, etc.) happens after all blocks of the document have been
+         * parsed, and is independent for each block. With this enabled, the blocks are distributed to the workers of
+         * the pool, each using its own {@link InlineParser}. Documents with fewer than {@code minBlocks} blocks are
+         * still processed on the calling thread, as the overhead isn't worth it for small inputs.
+         * <p>
+         * Note that custom {@link DelimiterProcessor} and {@link LinkProcessor} instances are then called from
+         * multiple threads concurrently, so they must be thread-safe (like when using one {@link Parser} from multiple
+         * threads). Inline parsers and inline content parsers are created per worker.
+         * <p>
+         * By default, inlines are parsed sequentially.
+         *
+         * @param pool      the pool to run inline parsing in, or null to disable parallel parsing again
+         * @param minBlocks the minimum number of blocks in a document for parsing it in parallel
+         * @return {@code this}
+         */
+        public Builder parallelInlineParsing(ForkJoinPool pool, int minBlocks) {
+            if (minBlocks < 1) {
+                throw new IllegalArgumentException("minBlocks must be at least 1, was " + minBlocks);
+            }
+            this.inlineParsingPool = pool;
+            this.parallelInlineParsingThreshold = minBlocks;
+            return this;
+        }
+
+        /**
+         * Whether to parse inline content such as emphasis and links at all. If disabled, only the block structure is
+         * parsed: The content of paragraphs, headings etc is added to them as a single {@link Text} node containing the
+         * raw source lines (separated by {@code \n}), and link reference definitions are not resolved. This is useful
+         * when only the block structure of a document is needed, e.g. for extracting an outline.
+         * <p>
+         * Note that this is different from {@link #enabledBlockTypes}, which controls which types of blocks are
+         * recognized. Link reference definitions are still parsed into {@link LinkReferenceDefinition} nodes.
+         * <p>
+         * By default, inline content is parsed. If disabled, {@link #inlineParserFactory} is not used.
+         *
+         * @param inlineParsing false to only parse the block structure
+         * @return {@code this}
+         */
+        public Builder inlineParsing(boolean inlineParsing) {
+            this.inlineParsing = inlineParsing;
+            return this;
+        }
+
+        /**
+         * Whether to parse the inline content of blocks (e.g. emphasis and links in paragraphs) only when the
+         * children of a block are first accessed, e.g. by {@link Node#getFirstChild()} or a visitor.
+         * <p>
+         * This is useful when only some parts of a document are needed, e.g. only the headings. The result is the same
+         * as with eager parsing, as all definitions are known by the time parsing finishes. Accessing the children is
+         * thread-safe, though inline parsing for the blocks of one document happens one block at a time.
+         * <p>
+         * Note that {@link PostProcessor}s that visit inline content, such as the one of the autolink extension, access
+         * all blocks and so cause everything to be parsed anyway. Also, {@link Parser#parseBlocks} always parses
+         * inlines before passing on a block.
+         * <p>
+         * By default, inline content is parsed eagerly.
+         *
+         * @param lazyInlineParsing true to parse inline content on first access
+         * @return {@code this}
+         */
+        public Builder lazyInlineParsing(boolean lazyInlineParsing) {
+            this.lazyInlineParsing = lazyInlineParsing;
+            return this;
+        }
+
+        /**
+         * Whether the literals of {@link Text} nodes should be views of the input instead of their own Strings. A
+         * String is only created when {@link Text#getLiteral()} is called (on each call), and the HTML renderer writes
+         * the views without copying them (see {@link Text#getLiteralSequence()}). Adjacent text that is merged into
+         * one node stays a view too.
+         * <p>
+         * This reduces allocation and the size of the resulting nodes when a document is parsed to be rendered once.
+         * The downside is that a node keeps the input it was parsed from, or a large part of it, in memory. When
+         * parsing bytes with {@link Parser#parseUtf8(ByteBuffer)}, the input must not be modified while the document
+         * is in use.
+         * <p>
+         * By default, literals are Strings.
+         *
+         * @param lazyTextLiterals true to use views of the input for text literals
+         * @return {@code this}
+         */
+        public Builder lazyTextLiterals(boolean lazyTextLiterals) {
+            this.lazyTextLiterals = lazyTextLiterals;
+            return this;
+        }
+
+        /**
+         * Limit how deeply blocks such as block quotes and lists can be nested. A line that would start a block nested
+         * deeper than that is not parsed as a block start, but as text of the containing block instead (e.g. a
+         * paragraph). This is one of the limits to use when parsing untrusted input.
+         * <p>
+         * By default, there is no limit.
+         *
+         * @param maxNestingDepth the maximum number of nested blocks, not counting the document
+         * @return {@code this}
+         */
+        public Builder maxNestingDepth(int maxNestingDepth) {
+            this.maxNestingDepth = checkLimit(maxNestingDepth, "maxNestingDepth");
+            return this;
+        }
+
+        /**
+         * Limit the number of nodes that the parser creates for a document. When parsing exceeds it,
+         * {@link LimitExceededException} is thrown. Note that this counts the nodes as they are created by the parser,
+         * so nodes that are created by delimiter processors (e.g. for emphasis) or post-processors are not included.
+         * <p>
+         * By default, there is no limit.
+         *
+         * @param maxNodes the maximum number of nodes
+         * @return {@code this}
+         */
+        public Builder maxNodes(int maxNodes) {
+            this.maxNodes = checkLimit(maxNodes, "maxNodes");
+            return this;
+        }
+
+        /**
+         * Limit the size of the stacks of delimiter runs (e.g. {@code *} for emphasis) and of brackets (for links and
+         * images) when parsing the inline content of a block. Each limit applies separately. Further delimiter runs or
+         * opening brackets are treated as text, so they don't result in emphasis or links.
+         * <p>
+         * By default, there is no limit.
+         *
+         * @param maxInlineStackDepth the maximum number of delimiter runs and brackets on each stack
+         * @return {@code this}
+         */
+        public Builder maxInlineStackDepth(int maxInlineStackDepth) {
+            this.maxInlineStackDepth = checkLimit(maxInlineStackDepth, "maxInlineStackDepth");
+            return this;
+        }
+
+        /**
+         * Limit the length of a line of input (in characters). When a line is longer, {@link LimitExceededException}
+         * is thrown. When parsing from a reader, this happens before all of the line has been read.
+         * <p>
+         * By default, there is no limit.
+         *
+         * @param maxLineLength the maximum number of characters in a line, not counting the line terminator
+         * @return {@code this}
+         */
+        public Builder maxLineLength(int maxLineLength) {
+            this.maxLineLength = checkLimit(maxLineLength, "maxLineLength");
+            return this;
+        }
+
+        /**
+         * Set the size of the buffer (in characters) used for reading input with {@link Parser#parseReader},
+         * {@link Parser#parse(Path)} and the other methods that read input incrementally.
+         * <p>
+         * Lines are passed to block parsers as views of the buffer instead of being copied into separate Strings.
+         * Only a line that doesn't fit into the rest of the buffer is copied, into a new (bigger if needed) buffer.
+         * When the input has very long lines, a bigger buffer avoids these copies.
+         * <p>
+         * The default is 8192 characters.
+         *
+         * @param readBufferSize the number of characters to read at once
+         * @return {@code this}
+         */
+        public Builder readBufferSize(int readBufferSize) {
+            this.readBufferSize = checkLimit(readBufferSize, "readBufferSize");
+            return this;
+        }
+
+        /**
+         * Parse large inputs in parallel using the specified pool.
+         * <p>
+         * With this enabled, {@link Parser#parse(String)} splits inputs into chunks at blank lines, parses the chunks
+         * in parallel and then combines the results. Where a chunk boundary turns out to be inside a block (e.g. a
+         * fenced code block or a list), parsing of the previous chunk is continued, so the resulting document is
+         * always the same as when parsing sequentially. Link reference definitions work across chunks (the first
+         * definition of a label wins, as usual). Inputs are split into at most as many chunks as the pool's
+         * parallelism, and chunks are at least {@code minChunkSize} characters long, so smaller inputs are parsed on the
+         * calling thread.
+         * <p>
+         * Note that block parsers of different chunks run concurrently, so custom block parser factories, delimiter
+         * processors and link processors must be thread-safe (like when using one {@link Parser} from multiple
+         * threads). The other parse methods read the input incrementally and are not affected by this.
+         * <p>
+         * By default, input is parsed sequentially.
+         *
+         * @param pool         the pool to parse chunks in, or null to disable parallel parsing again
+         * @param minChunkSize the minimum number of characters in a chunk
+         * @return {@code this}
+         */
+        public Builder parallelBlockParsing(ForkJoinPool pool, int minChunkSize) {
+            if (minChunkSize < 1) {
+                throw new IllegalArgumentException("minChunkSize must be at least 1, was " + minChunkSize);
+            }
+            this.blockParsingPool = pool;
+            this.minChunkSize = minChunkSize;
+            return this;
+        }
+
         /**
          * Add a custom block parser factory.
          * <p>
@@ -281,6 +822,26 @@ public class Parser {
             return this;
         }
 
+        /**
+         * Add definitions that can be used by all documents parsed with this parser, e.g. a glossary of
+         * {@link LinkReferenceDefinition}s that should be usable as {@code [term]} everywhere. This avoids having to
+         * add them to each document as Markdown and parse them again each time.
+         * <p>
+         * A definition in the document itself takes precedence over one with the same label added here. When adding
+         * multiple maps of the same type, the first one wins for the same label.
+         * <p>
+         * The map is copied when building the parser, so later changes to it have no effect. The parser only reads the
+         * copy, so it can be shared between threads the same as without definitions.
+         *
+         * @param definitions the definitions, e.g. a {@code DefinitionMap<LinkReferenceDefinition>}
+         * @return {@code this}
+         */
+        public Builder definitions(DefinitionMap<?> definitions) {
+            Objects.requireNonNull(definitions, "definitions must not be null");
+            this.definitions.add(definitions);
+            return this;
+        }
+
         public Builder postProcessor(PostProcessor postProcessor) {
             Objects.requireNonNull(postProcessor, "postProcessor must not be null");
             postProcessors.add(postProcessor);
@@ -310,6 +871,13 @@ public class Parser {
             return this;
         }
 
+        private static int checkLimit(int limit, String name) {
+            if (limit < 1) {
+                throw new IllegalArgumentException(name + " must be at least 1, was " + limit);
+            }
+            return limit;
+        }
+
         private InlineParserFactory getInlineParserFactory() {
             if (inlineParserFactory != null) {
                 return inlineParserFactory;
@@ -0,0 +1,85 @@
+package org.commonmark.parser;
+
+import org.commonmark.Cancellation;
+import org.commonmark.internal.DocumentParser;
+import org.commonmark.internal.InlineParserContextImpl;
+import org.commonmark.node.Node;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Objects;
+
+/**
+ * A session for parsing many documents one after another with the same {@link Parser}, e.g. the messages of a chat.
+ * <p>
+ * For each document, {@link Parser#parse(String)} sets up a new inline parser, which involves processing the
+ * configured delimiter processors, inline content parsers, etc. A session does that once and then reuses the inline
+ * parser for all documents, which makes a difference for small documents. The result of parsing is the same.
+ * <p>
+ * Example:
+ * <pre><code>
+ * ParserSession session = parser.newSession();
+ * for (String message : messages) {
+ *     Node document = session.parse(message);
+ *     // ...
+ * }
+ * </code></pre>
+ * A session is not thread-safe, use a separate session per thread instead. Parallel block parsing (see
+ * {@link Parser.Builder#parallelBlockParsing}) is not used by sessions.
+ */
+public class ParserSession {
+
+    private final Parser parser;
+    private final InlineParserContextImpl inlineParserContext;
+    private final InlineParser inlineParser;
+
+    ParserSession(Parser parser) {
+        this.parser = parser;
+        this.inlineParserContext = parser.createInlineParserContext();
+        this.inlineParser = parser.createInlineParser(inlineParserContext);
+    }
+
+    /**
+     * Parse the specified input text into a tree of nodes, see {@link Parser#parse(String)}.
+     *
+     * @param input the text to parse - must not be null
+     * @return the root node
+     */
+    public Node parse(String input) {
+        return parse(input, null);
+    }
+
+    /**
+     * Parse the specified input text into a tree of nodes, see {@link Parser#parse(String, Cancellation)}.
+     *
+     * @param input        the text to parse - must not be null
+     * @param cancellation the token for cancelling this call, or null
+     * @return the root node
+     */
+    public Node parse(String input, Cancellation cancellation) {
+        Objects.requireNonNull(input, "input must not be null");
+        var documentParser = createDocumentParser();
+        documentParser.setCancellation(cancellation);
+        Node document = documentParser.parse(input);
+        return parser.postProcess(document, cancellation);
+    }
+
+    /**
+     * Parse the specified reader into a tree of nodes, see {@link Parser#parseReader(Reader)}.
+     *
+     * @param input the reader to parse - must not be null
+     * @return the root node
+     * @throws IOException when reading throws an exception
+     */
+    public Node parseReader(Reader input) throws IOException {
+        Objects.requireNonNull(input, "input must not be null");
+        Node document = createDocumentParser().parse(parser.newLineReader(input));
+        return parser.postProcess(document);
+    }
+
+    private DocumentParser createDocumentParser() {
+        var documentParser = parser.createDocumentParser();
+        documentParser.reuseInlineParser(inlineParser, inlineParserContext);
+        return documentParser;
+    }
+}
@@ -23,6 +23,13 @@ public class SourceLine {
         this.sourceSpan = sourceSpan;
     }
 
+    /**
+     * Get the content of the line. This is not necessarily a String (the parser uses views of its input to avoid
+     * copying lines), and it's not equal to a String with the same content. To compare with a String, use
+     * {@code CharSequence.compare(line.getContent(), "---") == 0} or {@code line.getContent().toString()}.
+     *
+     * @return the content of the line
+     */
     public CharSequence getContent() {
         return content;
     }
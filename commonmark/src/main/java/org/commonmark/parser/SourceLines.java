@@ -43,6 +43,9 @@ public class SourceLines {
     }
 
     public String getContent() {
+        if (lines.size() == 1) {
+            return lines.get(0).getContent().toString();
+        }
         StringBuilder sb = new StringBuilder();
         for (int i = 0; i < lines.size(); i++) {
             if (i != 0) {
@@ -54,13 +57,17 @@ public class SourceLines {
     }
 
     public List<SourceSpan> getSourceSpans() {
-        List<SourceSpan> sourceSpans = new ArrayList<>();
+        List<SourceSpan> sourceSpans = null;
         for (SourceLine line : lines) {
             SourceSpan sourceSpan = line.getSourceSpan();
             if (sourceSpan != null) {
+                if (sourceSpans == null) {
+                    sourceSpans = new ArrayList<>(lines.size());
+                }
                 sourceSpans.add(sourceSpan);
             }
         }
-        return sourceSpans;
+        // Without source spans enabled, this is called for every block, so avoid creating a list for nothing
+        return sourceSpans != null ? sourceSpans : List.of();
     }
 }
@@ -0,0 +1,58 @@
+package org.commonmark.parser;
+
+import org.commonmark.node.Block;
+
+import java.util.function.Predicate;
+
+/**
+ * Condition for stopping parsing before the end of the input, e.g. when only the first few blocks of a long document
+ * are needed. See {@link Parser#parse(String, StopCondition)} and
+ * {@link Parser#parseReader(java.io.Reader, StopCondition)}.
+ * <p>
+ * The condition is checked for each top-level block of the document once it has been closed, i.e. when its content
+ * (including nested blocks) is complete. When it returns true, no further input is read and the document is finalized
+ * as if the input had ended after the block. Note that a block is only closed when a following line doesn't continue
+ * it, e.g. a paragraph is closed by a blank line, and a list is only closed by a line that doesn't belong to it.
+ * <p>
+ * The inline content of the block has not been parsed yet when the condition is checked.
+ */
+@FunctionalInterface
+public interface StopCondition {
+
+    /**
+     * @param block      the top-level block that has been closed
+     * @param blockIndex the index of the block among the top-level blocks, starting at 0
+     * @param inputIndex the index in the input (in characters) up to which lines have been parsed, at least the end of
+     *                   the block
+     * @return true to stop parsing after this block
+     */
+    boolean shouldStop(Block block, int blockIndex, int inputIndex);
+
+    /**
+     * @param count the number of top-level blocks to parse
+     * @return a condition that stops after the specified number of top-level blocks
+     */
+    static StopCondition afterBlocks(int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("count must be at least 1, was " + count);
+        }
+        return (block, blockIndex, inputIndex) -> blockIndex + 1 >= count;
+    }
+
+    /**
+     * @param inputIndex the index in the input (in characters)
+     * @return a condition that stops after the first top-level block that is closed once the specified input index has
+     * been reached
+     */
+    static StopCondition afterInputIndex(int inputIndex) {
+        return (block, blockIndex, index) -> index >= inputIndex;
+    }
+
+    /**
+     * @param predicate the predicate for the block to stop after
+     * @return a condition that stops after the first top-level block that matches the predicate
+     */
+    static StopCondition afterBlock(Predicate<Block> predicate) {
+        return (block, blockIndex, inputIndex) -> predicate.test(block);
+    }
+}
@@ -3,7 +3,7 @@ package org.commonmark.parser.beta;
 /**
  * Parser for a type of inline content. Registered via a {@link InlineContentParserFactory} and created by its
  * {@link InlineContentParserFactory#create() create} method. The lifetime of this is tied to each inline content
- * snippet that is parsed, as a new instance is created for each.
+ * snippet that is parsed, as a new instance is created for each, unless the parser can be {@link #reset()}.
  */
 public interface InlineContentParser {
 
@@ -18,4 +18,15 @@ public interface InlineContentParser {
      * @return the result of parsing; can indicate that this parser is not interested, or that parsing was successful
      */
     ParsedInline tryParse(InlineParserState inlineParserState);
+
+    /**
+     * Called after an inline content snippet has been parsed. A parser that can be used for the next snippet (e.g.
+     * because it doesn't have any state) should reset its state and return true. Then the inline parser keeps using it
+     * instead of creating a new one for the next snippet.
+     *
+     * @return true if the parser was reset and can be used again, false if a new one should be created (the default)
+     */
+    default boolean reset() {
+        return false;
+    }
 }
@@ -6,11 +6,9 @@ package org.commonmark.parser.beta;
  */
 public class Position {
 
-    final int lineIndex;
     final int index;
 
-    Position(int lineIndex, int index) {
-        this.lineIndex = lineIndex;
+    Position(int index) {
         this.index = index;
     }
 }
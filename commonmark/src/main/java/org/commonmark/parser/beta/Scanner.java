@@ -1,10 +1,13 @@
 package org.commonmark.parser.beta;
 
+import org.commonmark.internal.util.CharacterSet;
+import org.commonmark.internal.util.StringView;
 import org.commonmark.node.SourceSpan;
 import org.commonmark.parser.SourceLine;
 import org.commonmark.parser.SourceLines;
 import org.commonmark.text.CharMatcher;
 
+import java.util.Arrays;
 import java.util.List;
 
 public class Scanner {
@@ -17,26 +20,47 @@ public class Scanner {
      */
     public static final char END = '\0';
 
-    // Lines without newlines at the end. The scanner will yield `\n` between lines because they're significant for
-    // parsing and the final output. There is no `\n` after the last line.
+    private static final String[] ASCII_STRINGS = new String[128];
+
+    static {
+        for (char c = 0; c < ASCII_STRINGS.length; c++) {
+            ASCII_STRINGS[c] = String.valueOf(c);
+        }
+    }
+
+    // Lines without newlines at the end, for their source spans.
     private final List<SourceLine> lines;
-    // Which line we're at.
-    private int lineIndex;
-    // The index within the line. If index == length(), we pretend that there's a `\n` and only advance after we yield
-    // that.
-    private int index;
+    // The content of the lines joined with `\n` (significant for parsing and the final output), so that the scanner
+    // can go through all of it without switching lines. There is no `\n` after the last line. With a single line,
+    // this is just its content.
+    private final CharSequence text;
+    private final int length;
+    // The index in text where each line starts.
+    private final int[] lineStarts;
 
-    // Current line or "" if at the end of the lines (using "" instead of null saves a null check)
-    private SourceLine line = SourceLine.of("", null);
-    private int lineLength = 0;
+    // The index in text.
+    private int index;
 
     Scanner(List<SourceLine> lines, int lineIndex, int index) {
         this.lines = lines;
-        this.lineIndex = lineIndex;
-        this.index = index;
+        this.lineStarts = new int[Math.max(lines.size(), 1)];
+        if (lines.size() == 1) {
+            this.text = lines.get(0).getContent();
+        } else {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < lines.size(); i++) {
+                if (i != 0) {
+                    sb.append('\n');
+                }
+                lineStarts[i] = sb.length();
+                sb.append(lines.get(i).getContent());
+            }
+            this.text = sb.toString();
+        }
+        this.length = text.length();
         if (!lines.isEmpty()) {
             checkPosition(lineIndex, index);
-            setLine(lines.get(lineIndex));
+            this.index = lineStarts[lineIndex] + index;
         }
     }
 
@@ -45,77 +69,48 @@ public class Scanner {
     }
 
     public char peek() {
-        if (index < lineLength) {
-            return line.getContent().charAt(index);
-        } else {
-            if (lineIndex < lines.size() - 1) {
-                return '\n';
-            } else {
-                // Don't return newline for end of last line
-                return END;
-            }
-        }
+        return index < length ? text.charAt(index) : END;
     }
 
     public int peekCodePoint() {
-        if (index < lineLength) {
-            char c = line.getContent().charAt(index);
-            if (Character.isHighSurrogate(c) && index + 1 < lineLength) {
-                char low = line.getContent().charAt(index + 1);
+        if (index < length) {
+            char c = text.charAt(index);
+            // A newline is not a low surrogate, so this doesn't need to check for the end of the line
+            if (Character.isHighSurrogate(c) && index + 1 < length) {
+                char low = text.charAt(index + 1);
                 if (Character.isLowSurrogate(low)) {
                     return Character.toCodePoint(c, low);
                 }
             }
             return c;
         } else {
-            if (lineIndex < lines.size() - 1) {
-                return '\n';
-            } else {
-                // Don't return newline for end of last line
-                return END;
-            }
+            return END;
         }
     }
 
     public int peekPreviousCodePoint() {
         if (index > 0) {
             int prev = index - 1;
-            char c = line.getContent().charAt(prev);
+            char c = text.charAt(prev);
             if (Character.isLowSurrogate(c) && prev > 0) {
-                char high = line.getContent().charAt(prev - 1);
+                char high = text.charAt(prev - 1);
                 if (Character.isHighSurrogate(high)) {
                     return Character.toCodePoint(high, c);
                 }
             }
             return c;
         } else {
-            if (lineIndex > 0) {
-                return '\n';
-            } else {
-                return END;
-            }
+            return END;
         }
     }
 
     public boolean hasNext() {
-        if (index < lineLength) {
-            return true;
-        } else {
-            // No newline at end of last line
-            return lineIndex < lines.size() - 1;
-        }
+        return index < length;
     }
 
     public void next() {
-        index++;
-        if (index > lineLength) {
-            lineIndex++;
-            if (lineIndex < lines.size()) {
-                setLine(lines.get(lineIndex));
-            } else {
-                setLine(SourceLine.of("", null));
-            }
-            index = 0;
+        if (index < length) {
+            index++;
         }
     }
 
@@ -142,10 +137,11 @@ public class Scanner {
      * @return true if matched and position was advanced, false otherwise
      */
     public boolean next(String content) {
-        if (index < lineLength && index + content.length() <= lineLength) {
-            // Can't use startsWith because it's not available on CharSequence
+        if (index < length && text.charAt(index) != '\n' && index + content.length() <= length) {
+            // Can't use startsWith because it's not available on CharSequence. The content doesn't contain newlines, so
+            // if it matches, it's on the current line.
             for (int i = 0; i < content.length(); i++) {
-                if (line.getContent().charAt(index + i) != content.charAt(i)) {
+                if (text.charAt(index + i) != content.charAt(i)) {
                     return false;
                 }
             }
@@ -221,52 +217,128 @@ public class Scanner {
         }
     }
 
-    // Don't expose the int index, because it would be good if we could switch input to a List<String> of lines later
-    // instead of one contiguous String.
+    /**
+     * Advance over the characters on the current line until one matches. Unlike {@link #find(CharMatcher)}, this
+     * stops at the end of the line (before the newline), and goes through the characters of the line directly, so it's
+     * faster for skipping long runs of characters.
+     *
+     * @param matcher the matcher for the characters to stop at
+     * @return the number of characters that were skipped
+     */
+    public int skipUntil(CharMatcher matcher) {
+        int i = index;
+        if (matcher instanceof CharacterSet && matcher.matches('\n')) {
+            // Stops at the newline anyway
+            i = ((CharacterSet) matcher).find(text, i);
+        } else {
+            while (i < length) {
+                char c = text.charAt(i);
+                if (c == '\n' || matcher.matches(c)) {
+                    break;
+                }
+                i++;
+            }
+        }
+        int count = i - index;
+        index = i;
+        return count;
+    }
+
+    // Don't expose the int index, so that the internal structure of the Scanner can change.
     public Position position() {
-        return new Position(lineIndex, index);
+        return new Position(index);
     }
 
     public void setPosition(Position position) {
-        checkPosition(position.lineIndex, position.index);
-        this.lineIndex = position.lineIndex;
+        if (position.index < 0 || position.index > length) {
+            throw new IllegalArgumentException("Index " + position.index + " out of range, length: " + length);
+        }
         this.index = position.index;
-        setLine(lines.get(this.lineIndex));
     }
 
     // For cases where the caller appends the result to a StringBuilder, we could offer another method to avoid some
     // unnecessary copying.
     public SourceLines getSource(Position begin, Position end) {
-        if (begin.lineIndex == end.lineIndex) {
+        if (lines.isEmpty()) {
+            return SourceLines.empty();
+        }
+        int beginLine = lineIndex(begin.index);
+        int endLine = lineIndex(end.index);
+        if (beginLine == endLine) {
             // Shortcut for common case of text from a single line
-            SourceLine line = lines.get(begin.lineIndex);
-            CharSequence newContent = line.getContent().subSequence(begin.index, end.index);
-            SourceSpan newSourceSpan = null;
-            SourceSpan sourceSpan = line.getSourceSpan();
-            if (sourceSpan != null) {
-                newSourceSpan = sourceSpan.subSpan(begin.index, end.index);
-            }
-            return SourceLines.of(SourceLine.of(newContent, newSourceSpan));
+            return SourceLines.of(sourceLine(beginLine, begin.index, end.index, true));
         } else {
             SourceLines sourceLines = SourceLines.empty();
-
-            SourceLine firstLine = lines.get(begin.lineIndex);
-            sourceLines.addLine(firstLine.substring(begin.index, firstLine.getContent().length()));
+            sourceLines.addLine(sourceLine(beginLine, begin.index, lineEnd(beginLine), false));
 
             // Lines between begin and end (we are appending the full line)
-            for (int line = begin.lineIndex + 1; line < end.lineIndex; line++) {
+            for (int line = beginLine + 1; line < endLine; line++) {
                 sourceLines.addLine(lines.get(line));
             }
 
-            SourceLine lastLine = lines.get(end.lineIndex);
-            sourceLines.addLine(lastLine.substring(0, end.index));
+            sourceLines.addLine(sourceLine(endLine, lineStarts[endLine], end.index, false));
             return sourceLines;
         }
     }
 
-    private void setLine(SourceLine line) {
-        this.line = line;
-        this.lineLength = line.getContent().length();
+    /**
+     * Get the content between the two positions, with {@code \n} between lines. This is the same as
+     * {@code getSource(begin, end).getContent()}, but without creating the {@link SourceLines}.
+     */
+    public String getContent(Position begin, Position end) {
+        if (end.index - begin.index == 1) {
+            // Delimiters and brackets are parsed one character at a time, avoid a new String for each of them
+            char c = text.charAt(begin.index);
+            if (c < ASCII_STRINGS.length) {
+                return ASCII_STRINGS[c];
+            }
+        }
+        if (text instanceof String) {
+            return ((String) text).substring(begin.index, end.index);
+        }
+        return text.subSequence(begin.index, end.index).toString();
+    }
+
+    /**
+     * Same as {@link #getContent(Position, Position)}, but without copying the characters. The result is a view of
+     * the scanned lines, so it should only be kept as long as the lines don't change.
+     */
+    public CharSequence getContentView(Position begin, Position end) {
+        return view(begin.index, end.index);
+    }
+
+    /**
+     * @param emptySpan whether an empty part gets an empty source span (instead of none, like
+     *                  {@link SourceLine#substring})
+     * @return the part of the line from {@code begin} to {@code end} (indexes in the text)
+     */
+    private SourceLine sourceLine(int lineIndex, int begin, int end, boolean emptySpan) {
+        CharSequence content = view(begin, end);
+        SourceSpan sourceSpan = lines.get(lineIndex).getSourceSpan();
+        if (sourceSpan != null && (emptySpan || begin != end)) {
+            int lineStart = lineStarts[lineIndex];
+            sourceSpan = sourceSpan.subSpan(begin - lineStart, end - lineStart);
+        } else {
+            sourceSpan = null;
+        }
+        return SourceLine.of(content, sourceSpan);
+    }
+
+    private CharSequence view(int begin, int end) {
+        return text instanceof String ? StringView.of((String) text, begin, end) : text.subSequence(begin, end);
+    }
+
+    private int lineIndex(int index) {
+        if (lineStarts.length == 1) {
+            return 0;
+        }
+        int i = Arrays.binarySearch(lineStarts, index);
+        // Not found means index is in the line before the insertion point
+        return i >= 0 ? i : -i - 2;
+    }
+
+    private int lineEnd(int lineIndex) {
+        return lineIndex + 1 < lineStarts.length ? lineStarts[lineIndex + 1] - 1 : length;
     }
 
     private void checkPosition(int lineIndex, int index) {
@@ -4,6 +4,8 @@ import org.commonmark.internal.BlockContinueImpl;
 
 /**
  * Result object for continuing parsing of a block, see static methods for constructors.
+ * <p>
+ * Results are immutable and may be shared, so returning one doesn't necessarily allocate a new object.
  */
 public class BlockContinue {
 
@@ -15,15 +17,15 @@ public class BlockContinue {
     }
 
     public static BlockContinue atIndex(int newIndex) {
-        return new BlockContinueImpl(newIndex, -1, false);
+        return BlockContinueImpl.atIndex(newIndex);
     }
 
     public static BlockContinue atColumn(int newColumn) {
-        return new BlockContinueImpl(-1, newColumn, false);
+        return BlockContinueImpl.atColumn(newColumn);
     }
 
     public static BlockContinue finished() {
-        return new BlockContinueImpl(-1, -1, true);
+        return BlockContinueImpl.finished();
     }
 
 }
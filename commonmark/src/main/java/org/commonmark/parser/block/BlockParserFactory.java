@@ -1,5 +1,7 @@
 package org.commonmark.parser.block;
 
+import java.util.Set;
+
 /**
  * Parser factory for a block node for determining when a block starts.
  * <p>
@@ -9,4 +11,17 @@ public interface BlockParserFactory {
 
     BlockStart tryStart(ParserState state, MatchedBlockParser matchedBlockParser);
 
+    /**
+     * The characters that a block of this factory can start with, meaning the character at
+     * {@link ParserState#getNextNonSpaceIndex()}. If specified, {@link #tryStart} is only called for lines where that
+     * character is one of these. This avoids calling every factory for every line.
+     * <p>
+     * The default is {@code null}, which means {@link #tryStart} is called regardless of the character.
+     *
+     * @return the trigger characters, or {@code null} for any character
+     */
+    default Set<Character> getTriggerCharacters() {
+        return null;
+    }
+
 }
@@ -43,4 +43,16 @@ public interface DelimiterProcessor {
      */
     int process(DelimiterRun openingRun, DelimiterRun closingRun);
 
+    /**
+     * Whether an opener that {@link #process} returned 0 for would be rejected for any other closer too, e.g. because
+     * of the node before it. If so, the opener is not tried again for later closers, which keeps the parsing time
+     * linear for input with many delimiters that don't match. The default is false, which means the opener is tried
+     * again for each later closer.
+     *
+     * @param openingRun the opening delimiter run that was rejected
+     * @return true if the opener can't be used with any closer
+     */
+    default boolean rejectsOpener(DelimiterRun openingRun) {
+        return false;
+    }
 }
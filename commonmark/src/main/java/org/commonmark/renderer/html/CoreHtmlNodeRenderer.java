@@ -218,7 +218,7 @@ public class CoreHtmlNodeRenderer extends AbstractVisitor implements NodeRendere
 
     @Override
     public void visit(Text text) {
-        html.text(text.getLiteral());
+        html.text(text.getLiteralSequence());
     }
 
     @Override
@@ -308,7 +308,7 @@ public class CoreHtmlNodeRenderer extends AbstractVisitor implements NodeRendere
 
         @Override
         public void visit(Text text) {
-            sb.append(text.getLiteral());
+            sb.append(text.getLiteralSequence());
         }
 
         @Override
@@ -1,5 +1,6 @@
 package org.commonmark.renderer.html;
 
+import org.commonmark.Cancellation;
 import org.commonmark.Extension;
 import org.commonmark.internal.renderer.NodeRendererMap;
 import org.commonmark.internal.util.Escaping;
@@ -8,6 +9,7 @@ import org.commonmark.renderer.NodeRenderer;
 import org.commonmark.renderer.Renderer;
 
 import java.util.*;
+import java.util.concurrent.CancellationException;
 
 /**
  * Renders a tree of nodes to HTML.
@@ -20,6 +22,11 @@ import java.util.*;
  */
 public class HtmlRenderer implements Renderer {
 
+    /**
+     * Mask for how often to check for cancellation, in number of rendered nodes.
+     */
+    private static final int CANCELLATION_CHECK_INTERVAL = 0xFF;
+
     private final String softbreak;
     private final boolean escapeHtml;
     private final boolean percentEncodeUrls;
@@ -60,21 +67,45 @@ public class HtmlRenderer implements Renderer {
 
     @Override
     public void render(Node node, Appendable output) {
-        Objects.requireNonNull(node, "node must not be null");
-        RendererContext context = new RendererContext(new HtmlWriter(output));
-        context.beforeRoot(node);
-        context.render(node);
-        context.afterRoot(node);
+        render(node, output, null);
     }
 
     @Override
     public String render(Node node) {
+        return render(node, (Cancellation) null);
+    }
+
+    /**
+     * Render the tree of nodes to HTML, stopping with a {@link CancellationException} when the cancellation token is
+     * cancelled, see {@link Cancellation}.
+     *
+     * @param node         the root node
+     * @param cancellation the token for cancelling this call, or null
+     * @return the rendered HTML
+     */
+    public String render(Node node, Cancellation cancellation) {
         Objects.requireNonNull(node, "node must not be null");
         StringBuilder sb = new StringBuilder();
-        render(node, sb);
+        render(node, sb, cancellation);
         return sb.toString();
     }
 
+    /**
+     * Render the tree of nodes to the output, stopping with a {@link CancellationException} when the cancellation token
+     * is cancelled, see {@link Cancellation}.
+     *
+     * @param node         the root node
+     * @param output       output for rendering
+     * @param cancellation the token for cancelling this call, or null
+     */
+    public void render(Node node, Appendable output, Cancellation cancellation) {
+        Objects.requireNonNull(node, "node must not be null");
+        RendererContext context = new RendererContext(new HtmlWriter(output), cancellation);
+        context.beforeRoot(node);
+        context.render(node);
+        context.afterRoot(node);
+    }
+
     /**
      * Builder for configuring an {@link HtmlRenderer}. See methods for default configuration.
      */
@@ -236,9 +267,12 @@ public class HtmlRenderer implements Renderer {
         private final HtmlWriter htmlWriter;
         private final List<AttributeProvider> attributeProviders;
         private final NodeRendererMap nodeRendererMap = new NodeRendererMap();
+        private final Cancellation cancellation;
+        private int renderedNodes;
 
-        private RendererContext(HtmlWriter htmlWriter) {
+        private RendererContext(HtmlWriter htmlWriter, Cancellation cancellation) {
             this.htmlWriter = htmlWriter;
+            this.cancellation = cancellation;
 
             attributeProviders = new ArrayList<>(attributeProviderFactories.size());
             for (var attributeProviderFactory : attributeProviderFactories) {
@@ -299,6 +333,9 @@ public class HtmlRenderer implements Renderer {
 
         @Override
         public void render(Node node) {
+            if (cancellation != null && (++renderedNodes & CANCELLATION_CHECK_INTERVAL) == 0) {
+                cancellation.throwIfCancelled();
+            }
             nodeRendererMap.render(node);
         }
 
@@ -26,6 +26,31 @@ public class HtmlWriter {
         append(Escaping.escapeHtml(text));
     }
 
+    /**
+     * Same as {@link #text(String)}, but for any character sequence, e.g. a view of the parser input (see
+     * {@link org.commonmark.node.Text#getLiteralSequence()}). The parts that don't need escaping are appended
+     * directly, without creating a String for them.
+     * <p>
+     * In subclasses, this calls {@link #text(String)}, so that overriding it (or {@link #append(String)}) still works.
+     */
+    public void text(CharSequence text) {
+        if (text instanceof String || getClass() != HtmlWriter.class) {
+            text(text.toString());
+            return;
+        }
+        int start = 0;
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            String replacement = Escaping.escapeHtml(text.charAt(i));
+            if (replacement != null) {
+                append(text, start, i);
+                append(replacement);
+                start = i + 1;
+            }
+        }
+        append(text, start, length);
+    }
+
     public void tag(String name) {
         tag(name, NO_ATTRIBUTES);
     }
@@ -72,4 +97,16 @@ public class HtmlWriter {
             lastChar = s.charAt(length - 1);
         }
     }
+
+    private void append(CharSequence s, int start, int end) {
+        if (start == end) {
+            return;
+        }
+        try {
+            buffer.append(s, start, end);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        lastChar = s.charAt(end - 1);
+    }
 }
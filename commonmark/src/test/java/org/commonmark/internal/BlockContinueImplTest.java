@@ -0,0 +1,35 @@
+package org.commonmark.internal;
+
+import org.commonmark.parser.block.BlockContinue;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BlockContinueImplTest {
+
+    @Test
+    void sharedInstances() {
+        assertThat(BlockContinue.atIndex(3)).isSameAs(BlockContinue.atIndex(3));
+        assertThat(BlockContinue.atColumn(3)).isSameAs(BlockContinue.atColumn(3));
+        assertThat(BlockContinue.finished()).isSameAs(BlockContinue.finished());
+        assertThat(BlockContinue.atIndex(3)).isNotSameAs(BlockContinue.atColumn(3));
+    }
+
+    @Test
+    void values() {
+        var atIndex = (BlockContinueImpl) BlockContinue.atIndex(1000);
+        assertThat(atIndex.getNewIndex()).isEqualTo(1000);
+        assertThat(atIndex.getNewColumn()).isEqualTo(-1);
+        assertThat(atIndex.isFinalize()).isFalse();
+
+        var atColumn = (BlockContinueImpl) BlockContinue.atColumn(5);
+        assertThat(atColumn.getNewIndex()).isEqualTo(-1);
+        assertThat(atColumn.getNewColumn()).isEqualTo(5);
+        assertThat(atColumn.isFinalize()).isFalse();
+
+        var finished = (BlockContinueImpl) BlockContinue.finished();
+        assertThat(finished.getNewIndex()).isEqualTo(-1);
+        assertThat(finished.getNewColumn()).isEqualTo(-1);
+        assertThat(finished.isFinalize()).isTrue();
+    }
+}
@@ -0,0 +1,45 @@
+package org.commonmark.internal.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CharacterSetTest {
+
+    @Test
+    void testMatches() {
+        var characters = new BitSet();
+        characters.set('\n');
+        characters.set('*');
+        characters.set('_');
+        characters.set('\u00e4');
+        var set = CharacterSet.of(characters);
+
+        for (char c = 0; c < 512; c++) {
+            assertThat(set.matches(c)).as("char %d", (int) c).isEqualTo(characters.get(c));
+        }
+        assertThat(CharacterSet.of(new BitSet()).matches('\u00e4')).isFalse();
+    }
+
+    @Test
+    void testFind() {
+        var characters = new BitSet();
+        characters.set('*');
+        var set = CharacterSet.of(characters);
+
+        var line = "foo *bar* baz";
+        var chars = ("x" + line + "x").toCharArray();
+        var bytes = ByteBuffer.wrap(("x" + line + "x").getBytes(StandardCharsets.US_ASCII));
+        for (CharSequence s : new CharSequence[]{line, StringView.of("x" + line + "x", 1, line.length() + 1),
+                CharArrayView.of(chars, 1, line.length() + 1), AsciiView.of(bytes, 1, line.length() + 1),
+                new StringBuilder(line)}) {
+            assertThat(set.find(s, 0)).as("%s", s.getClass()).isEqualTo(4);
+            assertThat(set.find(s, 5)).as("%s", s.getClass()).isEqualTo(8);
+            assertThat(set.find(s, 9)).as("%s", s.getClass()).isEqualTo(line.length());
+        }
+    }
+}
@@ -48,6 +48,40 @@ class LineReaderTest {
         assertLines("what", "\r", "are", "\r", "", "\r", "you", "\r\n", "", "\r\n", "even", "\n", "doing", null);
     }
 
+    @Test
+    void testReadLineViewKeepsViewsValid() throws IOException {
+        var input = "foo\nbar\r\n" + repeat("b", 20) + "\rbaz";
+        for (int bufferSize = 1; bufferSize <= 8; bufferSize++) {
+            var lineReader = new LineReader(new StringReader(input), bufferSize);
+            var views = new ArrayList<CharSequence>();
+            CharSequence view;
+            while ((view = lineReader.readLineView()) != null) {
+                views.add(view);
+            }
+            // Compare as Strings after reading all lines, so that each view is checked after later reads
+            assertThat(views).extracting(CharSequence::toString).as("buffer size %d", bufferSize)
+                    .containsExactly("foo", "bar", repeat("b", 20), "baz");
+        }
+    }
+
+    @Test
+    void testBufferSize() {
+        assertThatThrownBy(() -> new LineReader(new StringReader(""), 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testSkipByteOrderMark() throws IOException {
+        var lineReader = new LineReader(new StringReader("\uFEFFfoo\n\uFEFFbar"));
+        lineReader.skipByteOrderMark();
+        assertThat(lineReader.readLine()).isEqualTo("foo");
+        lineReader.skipByteOrderMark();
+        assertThat(lineReader.readLine()).isEqualTo("bar");
+
+        var empty = new LineReader(new StringReader(""));
+        empty.skipByteOrderMark();
+        assertThat(empty.readLine()).isNull();
+    }
+
     @Test
     void testClose() throws IOException {
         var reader = new InputStreamReader(new ByteArrayInputStream("test".getBytes(StandardCharsets.UTF_8)));
@@ -63,6 +97,10 @@ class LineReaderTest {
 
         assertLines(new StringReader(input), s);
         assertLines(new SlowStringReader(input), s);
+        for (int bufferSize : new int[]{1, 2, 3, CHAR_BUFFER_SIZE}) {
+            assertLineViews(new LineReader(new StringReader(input), bufferSize), s);
+            assertLineViews(new LineReader(new SlowStringReader(input), bufferSize), s);
+        }
     }
 
     private static void assertLines(Reader reader, String... expectedParts) throws IOException {
@@ -78,6 +116,19 @@ class LineReaderTest {
         }
     }
 
+    private static void assertLineViews(LineReader lineReader, String... expectedParts) throws IOException {
+        try (lineReader) {
+            var lines = new ArrayList<>();
+            CharSequence line;
+            while ((line = lineReader.readLineView()) != null) {
+                lines.add(line.toString());
+                lines.add(lineReader.getLineTerminator());
+            }
+            assertThat(lineReader.getLineTerminator()).isNull();
+            assertThat(lines).containsExactly(expectedParts);
+        }
+    }
+
     private static String repeat(String s, int count) {
         StringBuilder sb = new StringBuilder(s.length() * count);
         for (int i = 0; i < count; i++) {
@@ -0,0 +1,53 @@
+package org.commonmark.internal.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NormalizedLabelTest {
+
+    @Test
+    void testSameAsUnicodeNormalization() {
+        String[] labels = {"", " ", "foo", "Foo Bar", "  foo  ", "foo \t\r\n bar", "\tfoo\n", "a\u000Bb", "\u0001foo\u0001",
+                "foo \u000B bar", "[]", "x_Y-z 123", "FOO"};
+        for (String label : labels) {
+            var normalized = NormalizedLabel.of(label);
+            var expected = normalizeUnicode(label);
+            assertThat(normalized).as(label).isNotNull();
+            assertThat(normalized.toString()).as(label).isEqualTo(expected);
+            assertThat(normalized.hashCode()).as(label).isEqualTo(expected.hashCode());
+            assertThat(normalized).as(label).isEqualTo(NormalizedLabel.ofNormalized(expected));
+            assertThat(NormalizedLabel.ofNormalized(expected)).as(label).isEqualTo(normalized);
+            assertThat(normalized).as(label).isNotEqualTo(NormalizedLabel.ofNormalized(expected + "X"));
+            assertThat(normalized).as(label).isNotEqualTo(expected);
+            assertThat(NormalizedLabel.isEmpty(label)).as(label).isEqualTo(expected.isEmpty());
+            assertThat(Escaping.normalizeLabelContent(label)).as(label).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void testNonAscii() {
+        assertThat(NormalizedLabel.of("\u1E9E")).isNull();
+        assertThat(NormalizedLabel.of("foo \u00e4")).isNull();
+        assertThat(NormalizedLabel.isEmpty("\u00e4")).isFalse();
+        assertThat(Escaping.normalizeLabelContent(" \u1E9E ")).isEqualTo("SS");
+    }
+
+    @Test
+    void testMapLookup() {
+        var map = new HashMap<NormalizedLabel, String>();
+        map.put(NormalizedLabel.ofNormalized(Escaping.normalizeLabelContent("Foo  bar")), "value");
+        map.put(NormalizedLabel.ofNormalized(Escaping.normalizeLabelContent("\u00e4")), "non-ascii");
+        assertThat(map.get(NormalizedLabel.of("foo bar"))).isEqualTo("value");
+        assertThat(map.get(NormalizedLabel.of(" FOO\n\tBAR "))).isEqualTo("value");
+        assertThat(map.get(NormalizedLabel.of("foobar"))).isNull();
+        assertThat(map.get(NormalizedLabel.ofNormalized(Escaping.normalizeLabelContent("\u00c4")))).isEqualTo("non-ascii");
+    }
+
+    private static String normalizeUnicode(String label) {
+        return label.trim().toLowerCase(Locale.ROOT).toUpperCase(Locale.ROOT).replaceAll("[ \t\r\n]+", " ");
+    }
+}
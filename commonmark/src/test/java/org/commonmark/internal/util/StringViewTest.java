@@ -0,0 +1,48 @@
+package org.commonmark.internal.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StringViewTest {
+
+    @Test
+    void view() {
+        var view = StringView.of("foo bar baz", 4, 7);
+        assertThat(view.length()).isEqualTo(3);
+        assertThat(view.charAt(0)).isEqualTo('b');
+        assertThat(view.charAt(2)).isEqualTo('r');
+        assertThat(view.toString()).isEqualTo("bar");
+        assertThat(view.subSequence(1, 3).toString()).isEqualTo("ar");
+        assertThat(view.subSequence(1, 1).length()).isEqualTo(0);
+    }
+
+    @Test
+    void fullRangeReturnsSource() {
+        var source = "foo";
+        assertThat(StringView.of(source, 0, 3)).isSameAs(source);
+        assertThat(StringView.of("xfoo", 1, 4).subSequence(0, 3)).isNotSameAs(source);
+    }
+
+    @Test
+    void equalsViews() {
+        var view = StringView.of("foo bar baz", 4, 7);
+        assertThat(view.equals(StringView.of("a bar", 2, 5))).isTrue();
+        assertThat(view.equals(CharArrayView.of("a bar".toCharArray(), 2, 5))).isTrue();
+        assertThat(view.equals(StringView.of("a ba", 2, 4))).isFalse();
+        assertThat(view.hashCode()).isEqualTo("bar".hashCode());
+        // Not equal to Strings, as String.equals isn't equal to views either
+        assertThat(view.equals("bar")).isFalse();
+        assertThat(CharSequence.compare(view, "bar")).isZero();
+    }
+
+    @Test
+    void outOfRange() {
+        var view = StringView.of("foo bar baz", 4, 7);
+        assertThatThrownBy(() -> view.charAt(3)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> view.charAt(-1)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> view.subSequence(2, 4)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> StringView.of("foo", 2, 1)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+}
@@ -0,0 +1,70 @@
+package org.commonmark.internal.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Objects;
+
+import static java.util.stream.Collectors.joining;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class Utf8LineReaderTest {
+
+    @Test
+    void testReadLine() {
+        assertLines();
+
+        assertLines("", "\n");
+        assertLines("foo", "\n", "bar", "\n");
+        assertLines("foo", "\n", "bar", null);
+        assertLines("", "\r\n", "", "\r\n");
+        assertLines("foo", "\r", "bar", "\r");
+        assertLines("what", "\r", "are", "\r", "", "\r", "you", "\r\n", "", "\r\n", "even", "\n", "doing", null);
+        assertLines("\u00e4", "\n", "a\u20acb", "\r\n", "\uD83D\uDE00", null);
+    }
+
+    @Test
+    void testAsciiLinesAreViews() {
+        var lineReader = new Utf8LineReader(utf8("foo\n\u00e4\n"));
+        var ascii = lineReader.readLineView();
+        assertThat(ascii).isInstanceOf(AsciiView.class);
+        assertThat(ascii.subSequence(1, 3)).hasToString("oo");
+        assertThat(ascii.hashCode()).isEqualTo("foo".hashCode());
+        assertThat(lineReader.readLineView()).isInstanceOf(String.class).isEqualTo("\u00e4");
+    }
+
+    @Test
+    void testSkipByteOrderMark() {
+        var lineReader = new Utf8LineReader(utf8("\uFEFFfoo"));
+        lineReader.skipByteOrderMark();
+        assertThat(lineReader.readLineView()).hasToString("foo");
+
+        var empty = new Utf8LineReader(utf8(""));
+        empty.skipByteOrderMark();
+        assertThat(empty.readLineView()).isNull();
+    }
+
+    private static void assertLines(String... expectedParts) {
+        var input = Arrays.stream(expectedParts).filter(Objects::nonNull).collect(joining(""));
+        var inputBuffer = utf8(input);
+        var directBuffer = ByteBuffer.allocateDirect(inputBuffer.remaining()).put(inputBuffer.duplicate()).flip();
+        for (var buffer : new ByteBuffer[]{inputBuffer, directBuffer}) {
+            var lineReader = new Utf8LineReader(buffer);
+            var lines = new ArrayList<>();
+            CharSequence line;
+            while ((line = lineReader.readLineView()) != null) {
+                lines.add(line.toString());
+                lines.add(lineReader.getLineTerminator());
+            }
+            assertThat(lineReader.getLineTerminator()).isNull();
+            assertThat(lines).containsExactly((Object[]) expectedParts);
+        }
+    }
+
+    private static ByteBuffer utf8(String s) {
+        return ByteBuffer.wrap(s.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -9,6 +9,7 @@ import org.commonmark.test.Nodes;
 import org.junit.jupiter.api.Test;
 
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -34,6 +35,46 @@ class InlineContentParserTest {
         assertThat(inline3.getIndex()).isEqualTo(0);
     }
 
+    @Test
+    void parserOnlyCreatedWhenTriggered() {
+        var created = new AtomicInteger();
+        var factory = new DollarInlineParser.Factory() {
+            @Override
+            public InlineContentParser create() {
+                created.incrementAndGet();
+                return super.create();
+            }
+        };
+        var parser = Parser.builder().customInlineContentParserFactory(factory).build();
+        created.set(0);
+        parser.parse("no trigger\n\n$one$ $two$\n\n*still* no trigger\n\n$three$");
+        assertThat(created.get()).isEqualTo(2);
+    }
+
+    @Test
+    void resettableParserKeptAcrossSnippets() {
+        var created = new AtomicInteger();
+        var factory = new DollarInlineParser.Factory() {
+            @Override
+            public InlineContentParser create() {
+                created.incrementAndGet();
+                return new DollarInlineParser() {
+                    @Override
+                    public boolean reset() {
+                        return true;
+                    }
+                };
+            }
+        };
+        var parser = Parser.builder().customInlineContentParserFactory(factory).build();
+        created.set(0);
+        var doc = parser.parse("$one$\n\n$two$\n\n# $three$");
+        assertThat(created.get()).isEqualTo(1);
+        // Same parser for all snippets, so the index keeps counting
+        var heading = Nodes.find(doc, Heading.class);
+        assertThat(((DollarInline) heading.getLastChild()).getIndex()).isEqualTo(2);
+    }
+
     @Test
     void bangInlineContentParser() {
         // See if using ! for a custom inline content parser works.
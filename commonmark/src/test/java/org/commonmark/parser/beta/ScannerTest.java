@@ -3,6 +3,7 @@ package org.commonmark.parser.beta;
 import org.commonmark.node.SourceSpan;
 import org.commonmark.parser.SourceLine;
 import org.commonmark.parser.SourceLines;
+import org.commonmark.text.CharMatcher;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
@@ -155,4 +156,61 @@ class ScannerTest {
         assertThat(scanner.next("ya")).isTrue();
         assertThat(scanner.next(" ")).isFalse();
     }
+
+    @Test
+    void skipUntil() {
+        Scanner scanner = Scanner.of(SourceLines.of(List.of(
+                SourceLine.of("hey *ya*", null),
+                SourceLine.of("hi", null))));
+        CharMatcher star = c -> c == '*';
+        assertThat(scanner.skipUntil(star)).isEqualTo(4);
+        assertThat(scanner.peek()).isEqualTo('*');
+        assertThat(scanner.skipUntil(star)).isEqualTo(0);
+        scanner.next();
+        assertThat(scanner.skipUntil(star)).isEqualTo(2);
+        scanner.next();
+        // Stops at the end of the line
+        assertThat(scanner.skipUntil(star)).isEqualTo(0);
+        assertThat(scanner.peek()).isEqualTo('\n');
+        scanner.next();
+        assertThat(scanner.skipUntil(star)).isEqualTo(2);
+        assertThat(scanner.peek()).isEqualTo(Scanner.END);
+    }
+
+    @Test
+    void setPosition() {
+        Scanner scanner = Scanner.of(SourceLines.of(List.of(
+                SourceLine.of("ab", null),
+                SourceLine.of("", null),
+                SourceLine.of("c", null))));
+        scanner.next();
+        Position afterA = scanner.position();
+        while (scanner.hasNext()) {
+            scanner.next();
+        }
+        assertThat(scanner.getSource(afterA, scanner.position()).getContent()).isEqualTo("b\n\nc");
+        scanner.next();
+        assertThat(scanner.peek()).isEqualTo(Scanner.END);
+
+        scanner.setPosition(afterA);
+        assertThat(scanner.peek()).isEqualTo('b');
+        assertThat(scanner.peekPreviousCodePoint()).isEqualTo('a');
+    }
+
+    @Test
+    void getContent() {
+        Scanner scanner = Scanner.of(SourceLines.of(List.of(
+                SourceLine.of("*ab", null),
+                SourceLine.of("cd\u00e4", null))));
+        Position start = scanner.position();
+        scanner.next();
+        assertThat(scanner.getContent(start, scanner.position())).isEqualTo("*");
+        Position afterStar = scanner.position();
+        while (scanner.hasNext()) {
+            scanner.next();
+        }
+        assertThat(scanner.getContent(afterStar, scanner.position()))
+                .isEqualTo(scanner.getSource(afterStar, scanner.position()).getContent())
+                .isEqualTo("ab\ncd\u00e4");
+    }
 }
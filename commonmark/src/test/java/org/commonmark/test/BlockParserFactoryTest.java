@@ -9,6 +9,7 @@ import org.commonmark.parser.block.*;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -54,6 +55,28 @@ public class BlockParserFactoryTest {
         assertThat(bc.getSourceSpans()).isEqualTo(List.of(SourceSpan.of(1, 0, 2, 2)));
     }
 
+    @Test
+    public void triggerCharacters() {
+        var triedCharacters = new StringBuilder();
+        var factory = new AbstractBlockParserFactory() {
+            @Override
+            public Set<Character> getTriggerCharacters() {
+                return Set.of('%', '\u2192');
+            }
+
+            @Override
+            public BlockStart tryStart(ParserState state, MatchedBlockParser matchedBlockParser) {
+                triedCharacters.append(state.getLine().getContent().charAt(state.getNextNonSpaceIndex()));
+                return BlockStart.none();
+            }
+        };
+        var parser = Parser.builder().customBlockParserFactory(factory).build();
+
+        parser.parse("%\n\n> % a\n\n# b\n\n  \u2192\n\n\u2190\n\n    %\n\n---\n");
+
+        assertThat(triedCharacters.toString()).isEqualTo("%%\u2192%");
+    }
+
     private static class DashBlock extends CustomBlock {
     }
 
@@ -75,7 +98,7 @@ public class BlockParserFactoryTest {
 
             @Override
             public BlockStart tryStart(ParserState state, MatchedBlockParser matchedBlockParser) {
-                if (state.getLine().getContent().equals("---")) {
+                if (CharSequence.compare(state.getLine().getContent(), "---") == 0) {
                     return BlockStart.of(new DashBlockParser());
                 }
                 return BlockStart.none();
@@ -0,0 +1,106 @@
+package org.commonmark.test;
+
+import org.commonmark.Cancellation;
+import org.commonmark.node.Node;
+import org.commonmark.parser.Parser;
+import org.commonmark.renderer.html.HtmlRenderer;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class CancellationTest {
+
+    private static final Parser PARSER = Parser.builder().build();
+
+    @Test
+    public void notCancelled() {
+        var checks = new AtomicInteger();
+        var cancellation = Cancellation.of(() -> checks.incrementAndGet() < 0);
+        var renderer = HtmlRenderer.builder().build();
+        var input = "# Heading\n\n*emphasis* and [link](/url)\n";
+        assertThat(renderer.render(PARSER.parse(input, cancellation), cancellation))
+                .isEqualTo(renderer.render(PARSER.parse(input)));
+        assertThat(checks.get()).isGreaterThan(0);
+        assertThat(cancellation.isCancelled()).isFalse();
+    }
+
+    @Test
+    public void cancelled() {
+        var cancellation = new Cancellation();
+        cancellation.cancel();
+        assertThatThrownBy(() -> PARSER.parse("text", cancellation)).isInstanceOf(CancellationException.class);
+        assertThatThrownBy(() -> PARSER.parseReader(new StringReader("text"), cancellation))
+                .isInstanceOf(CancellationException.class);
+        assertThatThrownBy(() -> PARSER.newSession().parse("text", cancellation))
+                .isInstanceOf(CancellationException.class);
+
+        // Only the call with the token is cancelled, not other calls on the same parser
+        assertThat(PARSER.parse("text").getFirstChild()).isNotNull();
+    }
+
+    @Test
+    public void cancelWhileParsingBlocks() {
+        assertThatThrownBy(() -> PARSER.parse("line\n".repeat(1000), cancelAfter(100)))
+                .isInstanceOf(CancellationException.class);
+    }
+
+    @Test
+    public void cancelWhileParsingInlines() {
+        // A single line, so only a few checks happen before inline parsing
+        assertThatThrownBy(() -> PARSER.parse("*a* ".repeat(10_000), cancelAfter(2)))
+                .isInstanceOf(CancellationException.class);
+    }
+
+    @Test
+    public void cancelWhileParsingInlinesInParallel() {
+        var pool = new ForkJoinPool(2);
+        try {
+            var parser = Parser.builder().parallelInlineParsing(pool, 2).build();
+            var input = ("*a* ".repeat(1000) + "\n\n").repeat(10);
+            // One check per line, the rest happen on the threads of the pool
+            assertThatThrownBy(() -> parser.parse(input, cancelAfter(20)))
+                    .isInstanceOf(CancellationException.class);
+            assertThat(parser.parse(input, new Cancellation()).getFirstChild()).isNotNull();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void cancelBeforePostProcessor() {
+        var cancellation = new Cancellation();
+        var processed = new AtomicInteger();
+        var parser = Parser.builder()
+                .postProcessor(node -> {
+                    processed.incrementAndGet();
+                    cancellation.cancel();
+                    return node;
+                })
+                .postProcessor(node -> {
+                    processed.incrementAndGet();
+                    return node;
+                })
+                .build();
+        assertThatThrownBy(() -> parser.parse("text", cancellation)).isInstanceOf(CancellationException.class);
+        assertThat(processed.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void cancelWhileRendering() {
+        Node document = PARSER.parse("*a* ".repeat(10_000));
+        var renderer = HtmlRenderer.builder().build();
+        assertThatThrownBy(() -> renderer.render(document, cancelAfter(2))).isInstanceOf(CancellationException.class);
+        assertThat(renderer.render(document)).startsWith("<p><em>a</em>");
+    }
+
+    private static Cancellation cancelAfter(int checks) {
+        var count = new AtomicInteger();
+        return Cancellation.of(() -> count.incrementAndGet() > checks);
+    }
+}
@@ -59,6 +59,15 @@ public class DelimiterProcessorTest extends RenderingTestCase {
         assertThat(RENDERER.render(parser.parse("+++both+++"))).isEqualTo("<p>(1)(2)both(/2)(/1)</p>\n");
     }
 
+    @Test
+    public void nonAsciiDelimiter() {
+        Parser parser = Parser.builder()
+                .customDelimiterProcessor(new CustomDelimiterProcessor('\u00a7', 1))
+                .build();
+        assertThat(RENDERER.render(parser.parse("a \u00a7test\u00a7 b"))).isEqualTo("<p>a test b</p>\n");
+        assertThat(RENDERER.render(parser.parse("a \u00a7test b"))).isEqualTo("<p>a \u00a7test b</p>\n");
+    }
+
     @Test
     public void multipleDelimitersWithSameLengthConflict() {
         assertThatThrownBy(() ->
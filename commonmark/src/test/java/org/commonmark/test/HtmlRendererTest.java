@@ -48,6 +48,23 @@ public class HtmlRendererTest {
         assertThat(rendered).isEqualTo("<p>escaping: &amp; &lt; &gt; &quot; '</p>\n");
     }
 
+    @Test
+    public void textSequenceWithWriterSubclass() {
+        var sb = new StringBuilder();
+        var writer = new HtmlWriter(sb) {
+            @Override
+            public void text(String text) {
+                super.text(text.toUpperCase());
+            }
+        };
+        writer.text(new StringBuilder("a < b"));
+        assertThat(sb.toString()).isEqualTo("A &lt; B");
+
+        var plain = new StringBuilder();
+        new HtmlWriter(plain).text(new StringBuilder("a < b"));
+        assertThat(plain.toString()).isEqualTo("a &lt; b");
+    }
+
     @Test
     public void characterReferencesWithoutSemicolonsShouldNotBeParsedShouldBeEscaped() {
         String input = "[example](&#x6A&#x61&#x76&#x61&#x73&#x63&#x72&#x69&#x70&#x74&#x3A&#x61&#x6C&#x65&#x72&#x74&#x28&#x27&#x58&#x53&#x53&#x27&#x29)";
@@ -0,0 +1,160 @@
+package org.commonmark.test;
+
+import org.commonmark.node.*;
+import org.commonmark.parser.IncludeSourceSpans;
+import org.commonmark.parser.IncrementalDocument;
+import org.commonmark.parser.Parser;
+import org.commonmark.renderer.html.HtmlRenderer;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class IncrementalDocumentTest {
+
+    private static final Parser PARSER = Parser.builder().includeSourceSpans(IncludeSourceSpans.BLOCKS_AND_INLINES).build();
+    private static final HtmlRenderer RENDERER = HtmlRenderer.builder().build();
+
+    private static final String INPUT = "# Heading\n" +
+            "\n" +
+            "Paragraph with *emphasis*\n" +
+            "and a [link][foo].\n" +
+            "\n" +
+            "> quote\n" +
+            "continued\n" +
+            "\n" +
+            "- item 1\n" +
+            "\n" +
+            "- item 2\n" +
+            "  more\n" +
+            "\n" +
+            "```\n" +
+            "code\n" +
+            "```\n" +
+            "Setext\n" +
+            "---\n" +
+            "\n" +
+            "[foo]: /url\n" +
+            "last `line`";
+
+    @Test
+    public void editWithinBlock() {
+        var incremental = PARSER.parseIncremental(INPUT);
+        var document = incremental.getDocument();
+        var heading = document.getFirstChild();
+        var definition = document.getLastChild().getPrevious();
+
+        int start = INPUT.indexOf("quote");
+        var result = incremental.edit(start, start + "quote".length(), "*quoted*");
+
+        assertThat(result).isSameAs(document);
+        assertThat(incremental.getInput()).isEqualTo(INPUT.replace("> quote", "> *quoted*"));
+        assertSameAsFullParse(incremental);
+        // Blocks that were not affected are reused
+        assertThat(document.getFirstChild()).isSameAs(heading);
+        assertThat(document.getLastChild().getPrevious()).isSameAs(definition);
+    }
+
+    @Test
+    public void editChangesBlockStructure() {
+        // Joins the heading with the paragraph
+        assertEdit(INPUT, 9, 11, "");
+        // Makes the quote continuation a separate paragraph
+        assertEdit(INPUT, INPUT.indexOf("continued"), INPUT.indexOf("continued"), "\n");
+        // Opens a fenced code block that lasts until the end
+        assertEdit(INPUT, 0, 0, "```\n");
+        // Makes a setext heading a paragraph
+        assertEdit(INPUT, INPUT.indexOf("---"), INPUT.indexOf("---") + 3, "x");
+        // Appends to the end
+        assertEdit(INPUT, INPUT.length(), INPUT.length(), "\n\nmore");
+        // Removes everything
+        assertEdit(INPUT, 0, INPUT.length(), "");
+        assertEdit("", 0, 0, "new");
+        assertEdit("\n\n\nfoo", 1, 1, "bar\n");
+    }
+
+    @Test
+    public void editDefinitions() {
+        // Adding and removing definitions changes links in other blocks
+        assertEdit(INPUT, INPUT.indexOf("[foo]:"), INPUT.indexOf("[foo]:") + 1, "");
+        assertEdit(INPUT, 0, 0, "[foo]: /first\n\n");
+        assertEdit(INPUT.replace("[foo]: /url", ""), 0, 0, "[foo]: /first\n\n");
+    }
+
+    @Test
+    public void editAllPositions() {
+        var replacements = List.of("", "x", "\n", "\n\n", "# ", "> ", "- ", "1. ", "    ", "```", "*", "[", "]", "\r\n", "---\n");
+        for (int start = 0; start <= INPUT.length(); start++) {
+            for (int length = 0; length <= 2 && start + length <= INPUT.length(); length++) {
+                for (var replacement : replacements) {
+                    assertEdit(INPUT, start, start + length, replacement);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void multipleEdits() {
+        var incremental = PARSER.parseIncremental(INPUT);
+        incremental.edit(0, 0, "Intro\n\n");
+        incremental.edit(incremental.getInput().indexOf("item 2"), incremental.getInput().indexOf("item 2"), "new\n- ");
+        incremental.edit(incremental.getInput().length(), incremental.getInput().length(), " end");
+        incremental.edit(incremental.getInput().indexOf("quote"), incremental.getInput().indexOf("quote") + 5, "");
+        assertSameAsFullParse(incremental);
+    }
+
+    @Test
+    public void lazyInlineParsing() {
+        var parser = Parser.builder().includeSourceSpans(IncludeSourceSpans.BLOCKS_AND_INLINES).lazyInlineParsing(true).build();
+        var incremental = parser.parseIncremental(INPUT);
+        // Inline content after the edits is parsed when dumping, so it needs to be shifted by both edits then
+        incremental.edit(0, 0, "Intro\n\n");
+        incremental.edit(0, 0, "*x*\n\n");
+        assertSameAsFullParse(incremental);
+        incremental.edit(0, 1, "");
+        assertSameAsFullParse(incremental);
+    }
+
+    @Test
+    public void withoutSourceSpans() {
+        var incremental = Parser.builder().build().parseIncremental(INPUT);
+        incremental.edit(0, 1, "");
+        assertThat(RENDERER.render(incremental.getDocument())).isEqualTo(RENDERER.render(PARSER.parse(INPUT.substring(1))));
+    }
+
+    @Test
+    public void invalidEdit() {
+        var incremental = PARSER.parseIncremental("foo");
+        assertThatThrownBy(() -> incremental.edit(2, 1, "")).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> incremental.edit(0, 4, "")).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    private static void assertEdit(String input, int start, int end, String replacement) {
+        var incremental = PARSER.parseIncremental(input);
+        incremental.edit(start, end, replacement);
+        assertThat(incremental.getInput()).isEqualTo(input.substring(0, start) + replacement + input.substring(end));
+        assertSameAsFullParse(incremental);
+    }
+
+    private static void assertSameAsFullParse(IncrementalDocument incremental) {
+        var expected = PARSER.parse(incremental.getInput());
+        var description = "edited input: " + incremental.getInput();
+        assertThat(RENDERER.render(incremental.getDocument())).as(description).isEqualTo(RENDERER.render(expected));
+        assertThat(dump(incremental.getDocument())).as(description).isEqualTo(dump(expected));
+    }
+
+    private static String dump(Node node) {
+        var sb = new StringBuilder();
+        dump(node, sb, 0);
+        return sb.toString();
+    }
+
+    private static void dump(Node node, StringBuilder sb, int depth) {
+        sb.append("  ".repeat(depth)).append(node).append(' ').append(node.getSourceSpans()).append('\n');
+        for (var child = node.getFirstChild(); child != null; child = child.getNext()) {
+            dump(child, sb, depth + 1);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package org.commonmark.test;
+
+import org.commonmark.node.Node;
+import org.commonmark.parser.IncludeSourceSpans;
+import org.commonmark.parser.LimitExceededException;
+import org.commonmark.parser.Parser;
+import org.commonmark.renderer.html.HtmlRenderer;
+import org.commonmark.testutil.TestResources;
+import org.commonmark.testutil.example.ExampleReader;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ParallelBlockParsingTest {
+
+    private static final Parser PARSER = Parser.builder().includeSourceSpans(IncludeSourceSpans.BLOCKS_AND_INLINES).build();
+    private static final HtmlRenderer RENDERER = HtmlRenderer.builder().build();
+
+    @Test
+    public void spec() {
+        var spec = TestResources.readAsString(TestResources.getSpec());
+        assertSameAsSequential(spec);
+        assertSameAsSequential(spec.replace("\n", "\r\n"));
+    }
+
+    @Test
+    public void specExamples() {
+        // Examples next to each other make for lots of chunk boundaries that are not between top-level blocks
+        var examples = String.join("\n\n", ExampleReader.readExampleSources(TestResources.getSpec()));
+        assertSameAsSequential(examples);
+    }
+
+    @Test
+    public void definitions() {
+        var input = "[foo] [bar]\n\n" +
+                "[foo]: /first\n\n" +
+                "paragraph\n\n" +
+                "[foo]: /second\n" +
+                "[bar]: /bar\n\n" +
+                "[foo] [bar]\n";
+        assertSameAsSequential(input);
+    }
+
+    @Test
+    public void unclosedBlocks() {
+        assertSameAsSequential("```\n\na\n\nb\n\nc\n\nd\n");
+        assertSameAsSequential("- a\n\nb\n\n- c\n\n  d\n\ne\n\n> f\n\ng");
+        assertSameAsSequential("\n\n\n\n\n\na\n\n\n\n\n\n");
+    }
+
+    @Test
+    public void smallInput() {
+        var pool = new ForkJoinPool(4);
+        try {
+            var parser = Parser.builder().parallelBlockParsing(pool, 1000).build();
+            assertThat(RENDERER.render(parser.parse("*a*\n\nb"))).isEqualTo("<p><em>a</em></p>\n<p>b</p>\n");
+            assertThat(RENDERER.render(parser.parse(""))).isEqualTo("");
+        } finally {
+            pool.shutdown();
+        }
+
+        assertThatThrownBy(() -> Parser.builder().parallelBlockParsing(ForkJoinPool.commonPool(), 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void maxNodes() {
+        // Chunks starting inside the code block first parse its lines as paragraphs, which are thrown away later
+        var input = "```\n" + "a\n\n".repeat(100) + "```\n";
+        var pool = new ForkJoinPool(4);
+        try {
+            var parser = Parser.builder().maxNodes(10).parallelBlockParsing(pool, 1).build();
+            assertThat(RENDERER.render(parser.parse(input))).isEqualTo(RENDERER.render(PARSER.parse(input)));
+
+            assertThatThrownBy(() -> parser.parse("a\n\n".repeat(100)))
+                    .isInstanceOf(LimitExceededException.class);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static void assertSameAsSequential(String input) {
+        var expected = PARSER.parse(input);
+        var expectedRendering = RENDERER.render(expected);
+        var expectedDump = dump(expected);
+        for (int parallelism = 2; parallelism <= 16; parallelism++) {
+            var pool = new ForkJoinPool(parallelism);
+            try {
+                var parser = Parser.builder()
+                        .includeSourceSpans(IncludeSourceSpans.BLOCKS_AND_INLINES)
+                        .parallelBlockParsing(pool, 1)
+                        .build();
+                var document = parser.parse(input);
+                assertThat(RENDERER.render(document)).as("parallelism " + parallelism).isEqualTo(expectedRendering);
+                assertThat(dump(document)).as("parallelism " + parallelism).isEqualTo(expectedDump);
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    private static String dump(Node node) {
+        var sb = new StringBuilder();
+        dump(node, sb, 0);
+        return sb.toString();
+    }
+
+    private static void dump(Node node, StringBuilder sb, int depth) {
+        sb.append("  ".repeat(depth)).append(node).append(' ').append(node.getSourceSpans()).append('\n');
+        for (var child = node.getFirstChild(); child != null; child = child.getNext()) {
+            dump(child, sb, depth + 1);
+        }
+    }
+}
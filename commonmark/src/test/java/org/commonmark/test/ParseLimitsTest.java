@@ -0,0 +1,91 @@
+package org.commonmark.test;
+
+import org.commonmark.parser.LimitExceededException;
+import org.commonmark.parser.Parser;
+import org.commonmark.renderer.html.HtmlRenderer;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ParseLimitsTest {
+
+    private static final HtmlRenderer RENDERER = HtmlRenderer.builder().build();
+
+    @Test
+    public void maxNestingDepth() {
+        var parser = Parser.builder().maxNestingDepth(3).build();
+        assertThat(render(parser, "> > > > > a")).isEqualTo("<blockquote>\n<blockquote>\n<blockquote>\n" +
+                "<p>&gt; &gt; a</p>\n" +
+                "</blockquote>\n</blockquote>\n</blockquote>\n");
+        // A list and its item are two levels
+        assertThat(render(parser, "- - - a")).isEqualTo("<ul>\n<li>- - a</li>\n</ul>\n");
+        // Not nested too deeply
+        assertThat(render(parser, "> > a")).isEqualTo(render(Parser.builder().build(), "> > a"));
+    }
+
+    @Test
+    public void maxNodes() {
+        var input = "a *b* c\n\n".repeat(100);
+        assertThat(render(Parser.builder().maxNodes(1000).build(), input))
+                .isEqualTo(render(Parser.builder().build(), input));
+
+        assertThatThrownBy(() -> Parser.builder().maxNodes(200).build().parse(input))
+                .isInstanceOf(LimitExceededException.class);
+        // Blocks alone
+        assertThatThrownBy(() -> Parser.builder().maxNodes(50).inlineParsing(false).build().parse(input))
+                .isInstanceOf(LimitExceededException.class);
+        // A single large paragraph
+        assertThatThrownBy(() -> Parser.builder().maxNodes(50).build().parse("*a* ".repeat(100)))
+                .isInstanceOf(LimitExceededException.class);
+    }
+
+    @Test
+    public void maxNodesWithLazyInlineParsing() {
+        var document = Parser.builder().maxNodes(50).lazyInlineParsing(true).build().parse("*a* ".repeat(100));
+        var paragraph = document.getFirstChild();
+        assertThatThrownBy(paragraph::getFirstChild).isInstanceOf(LimitExceededException.class);
+        // The paragraph only has part of its children, so it must not look complete on the next access
+        assertThatThrownBy(paragraph::getFirstChild).isInstanceOf(LimitExceededException.class);
+        assertThatThrownBy(() -> RENDERER.render(document)).isInstanceOf(LimitExceededException.class);
+    }
+
+    @Test
+    public void maxInlineStackDepth() {
+        var parser = Parser.builder().maxInlineStackDepth(2).build();
+        assertThat(render(parser, "*a* *b*")).isEqualTo("<p><em>a</em> *b*</p>\n");
+        // Matched brackets are removed from the stack
+        assertThat(render(parser, "[a](/a) [b](/b) [c](/c)"))
+                .isEqualTo("<p><a href=\"/a\">a</a> <a href=\"/b\">b</a> <a href=\"/c\">c</a></p>\n");
+        assertThat(render(parser, "[[![a](/a)](/b)](/c)"))
+                .isEqualTo("<p>[<a href=\"/a\">![a</a>](/b)](/c)</p>\n");
+    }
+
+    @Test
+    public void maxLineLength() throws Exception {
+        var parser = Parser.builder().maxLineLength(10).build();
+        assertThat(render(parser, "0123456789\n0123456789")).isEqualTo("<p>0123456789\n0123456789</p>\n");
+        assertThatThrownBy(() -> parser.parse("0123456789\n0123456789x"))
+                .isInstanceOf(LimitExceededException.class);
+
+        var longLine = "x".repeat(100_000);
+        var readerParser = Parser.builder().maxLineLength(20_000).build();
+        assertThatThrownBy(() -> readerParser.parseReader(new StringReader(longLine)))
+                .isInstanceOf(LimitExceededException.class);
+        assertThat(readerParser.parseReader(new StringReader(longLine.substring(0, 20_000)))).isNotNull();
+    }
+
+    @Test
+    public void invalidLimits() {
+        assertThatThrownBy(() -> Parser.builder().maxNestingDepth(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Parser.builder().maxNodes(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Parser.builder().maxInlineStackDepth(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Parser.builder().maxLineLength(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static String render(Parser parser, String input) {
+        return RENDERER.render(parser.parse(input));
+    }
+}
@@ -7,17 +7,26 @@ import org.commonmark.renderer.html.HtmlRenderer;
 import org.commonmark.testutil.TestResources;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.FilterReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.concurrent.Future;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -42,6 +51,146 @@ public class ParserTest {
         assertThat(renderer.render(document1)).isEqualTo(renderer.render(document2));
     }
 
+    @Test
+    public void readBufferSize() throws IOException {
+        String spec = TestResources.readAsString(TestResources.getSpec());
+        HtmlRenderer renderer = HtmlRenderer.builder().build();
+        String expectedRendering = renderer.render(Parser.builder().build().parse(spec));
+
+        for (int readBufferSize : new int[]{1, 7, 100_000}) {
+            Parser parser = Parser.builder().readBufferSize(readBufferSize).build();
+            assertThat(renderer.render(parser.parseReader(new StringReader(spec)))).isEqualTo(expectedRendering);
+        }
+
+        assertThatThrownBy(() -> Parser.builder().readBufferSize(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void pathTest() throws IOException {
+        Parser parser = Parser.builder().build();
+        String spec = TestResources.readAsString(TestResources.getSpec());
+
+        Path file = Files.createTempFile("spec", ".md");
+        Path bomFile = Files.createTempFile("spec-bom", ".md");
+        Path emptyFile = Files.createTempFile("empty", ".md");
+        try {
+            Files.write(file, spec.getBytes(StandardCharsets.UTF_8));
+            Files.write(bomFile, ("\uFEFF" + spec).getBytes(StandardCharsets.UTF_8));
+
+            HtmlRenderer renderer = HtmlRenderer.builder().escapeHtml(true).build();
+            String expected = renderer.render(parser.parse(spec));
+            assertThat(renderer.render(parser.parse(file))).isEqualTo(expected);
+            assertThat(renderer.render(parser.parse(bomFile))).isEqualTo(expected);
+            assertThat(parser.parse(emptyFile).getFirstChild()).isNull();
+        } finally {
+            Files.delete(file);
+            Files.delete(bomFile);
+            Files.delete(emptyFile);
+        }
+    }
+
+    @Test
+    public void pathWithLazyParsing() throws IOException {
+        Parser parser = Parser.builder().lazyInlineParsing(true).lazyTextLiterals(true).build();
+        HtmlRenderer renderer = HtmlRenderer.builder().build();
+        String input = "# Heading *a*\n\nSome *text* and [a link](/url)\n";
+
+        Path file = Files.createTempFile("lazy", ".md");
+        try {
+            Files.write(file, input.getBytes(StandardCharsets.UTF_8));
+            Node document = parser.parse(file);
+
+            // The document must not read the file after parsing, neither its changed nor its truncated content
+            Files.write(file, input.toUpperCase().getBytes(StandardCharsets.UTF_8));
+            Files.write(file, "x".getBytes(StandardCharsets.UTF_8));
+            assertThat(renderer.render(document)).isEqualTo(renderer.render(parser.parse(input)));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void parseUtf8() {
+        Parser parser = Parser.builder().includeSourceSpans(IncludeSourceSpans.BLOCKS_AND_INLINES).build();
+        String spec = TestResources.readAsString(TestResources.getSpec());
+        byte[] bytes = spec.getBytes(StandardCharsets.UTF_8);
+
+        HtmlRenderer renderer = HtmlRenderer.builder().escapeHtml(true).build();
+        String expected = renderer.render(parser.parse(spec));
+        assertThat(renderer.render(parser.parseUtf8(bytes))).isEqualTo(expected);
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length + 4);
+        direct.put("\uFEFF".getBytes(StandardCharsets.UTF_8)).put(bytes).put((byte) 'x').flip();
+        direct.position(3).limit(bytes.length + 3);
+        assertThat(renderer.render(parser.parseUtf8(direct))).isEqualTo(expected);
+        assertThat(direct.position()).isEqualTo(3);
+
+        // Source spans use character indexes
+        Node document = parser.parseUtf8("\u00e4\n\n*b*".getBytes(StandardCharsets.UTF_8));
+        assertThat(document.getLastChild().getSourceSpans()).containsExactly(SourceSpan.of(2, 0, 3, 3));
+
+        // Malformed input is replaced
+        byte[] malformed = {'a', (byte) 0xC3, '\n', '*', 'b', '*'};
+        assertThat(renderer.render(parser.parseUtf8(malformed))).isEqualTo("<p>a\uFFFD\n<em>b</em></p>\n");
+    }
+
+    @Test
+    public void inputStreamTest() throws IOException {
+        Parser parser = Parser.builder().build();
+        HtmlRenderer renderer = HtmlRenderer.builder().build();
+
+        byte[] input = "\uFEFF# h\u00e9ading\r\n\r\ntext".getBytes(StandardCharsets.UTF_8);
+        Node document = parser.parse(new ByteArrayInputStream(input), StandardCharsets.UTF_8);
+        assertThat(renderer.render(document)).isEqualTo("<h1>h\u00e9ading</h1>\n<p>text</p>\n");
+
+        byte[] utf16 = "\uFEFF*a*".getBytes(StandardCharsets.UTF_16LE);
+        document = parser.parse(new ByteArrayInputStream(utf16), StandardCharsets.UTF_16LE);
+        assertThat(renderer.render(document)).isEqualTo("<p><em>a</em></p>\n");
+    }
+
+    @Test
+    public void parseBlocks() throws IOException {
+        Parser parser = Parser.builder().build();
+        HtmlRenderer renderer = HtmlRenderer.builder().build();
+        String input = "# Heading\n\n[foo]: /url\n\n- a\n\n- b *c*\n\n> quote [foo]\n\n```\ncode\n```\nend";
+
+        List<Node> blocks = new ArrayList<>();
+        parser.parseBlocks(new StringReader(input), blocks::add);
+
+        assertThat(blocks).extracting(Object::getClass).containsExactly(
+                Heading.class, LinkReferenceDefinition.class, BulletList.class, BlockQuote.class,
+                FencedCodeBlock.class, Paragraph.class);
+        StringBuilder sb = new StringBuilder();
+        for (Node block : blocks) {
+            assertThat(block.getParent()).isNull();
+            sb.append(renderer.render(block));
+        }
+        assertThat(sb.toString()).isEqualTo(renderer.render(parser.parse(input)));
+    }
+
+    @Test
+    public void parseBlocksDefinitionsAfterUse() throws IOException {
+        List<Node> postProcessed = new ArrayList<>();
+        Parser parser = Parser.builder()
+                .postProcessor(node -> {
+                    postProcessed.add(node);
+                    return node;
+                })
+                .build();
+        HtmlRenderer renderer = HtmlRenderer.builder().build();
+
+        List<Node> blocks = new ArrayList<>();
+        parser.parseBlocks(new StringReader("[foo]\n\n[foo]: /url\n\n[foo]"), blocks::add);
+
+        // Post-processors are called for each block
+        assertThat(postProcessed).isEqualTo(blocks);
+        // The first reference comes before the definition, so it can't be resolved
+        assertThat(blocks).hasSize(3);
+        assertThat(renderer.render(blocks.get(0))).isEqualTo("<p>[foo]</p>\n");
+        assertThat(blocks.get(1)).isInstanceOf(LinkReferenceDefinition.class);
+        assertThat(renderer.render(blocks.get(2))).isEqualTo("<p><a href=\"/url\">foo</a></p>\n");
+    }
+
     @Test
     public void enabledBlockTypes() {
         String given = "# heading 1\n\nnot a heading";
@@ -135,6 +284,223 @@ public class ParserTest {
         }
     }
 
+    @Test
+    public void session() throws IOException {
+        var parser = Parser.builder().build();
+        var session = parser.newSession();
+        var renderer = HtmlRenderer.builder().build();
+
+        var first = session.parse("[foo]: /url\n\n*[foo]*");
+        assertThat(renderer.render(first)).isEqualTo("<p><em><a href=\"/url\">foo</a></em></p>\n");
+        // Definitions of a previous document must not be used
+        var second = session.parseReader(new StringReader("*[foo]*"));
+        assertThat(renderer.render(second)).isEqualTo("<p><em>[foo]</em></p>\n");
+
+        var spec = TestResources.readAsString(TestResources.getSpec());
+        assertThat(renderer.render(session.parse(spec))).isEqualTo(renderer.render(parser.parse(spec)));
+    }
+
+    @Test
+    public void parallelInlineParsing() throws Exception {
+        var spec = TestResources.readAsString(TestResources.getSpec());
+        var renderer = HtmlRenderer.builder().build();
+        var expectedRendering = renderer.render(Parser.builder().build().parse(spec));
+
+        var pool = new ForkJoinPool(4);
+        try {
+            var parser = Parser.builder().parallelInlineParsing(pool, 1).build();
+            assertThat(renderer.render(parser.parse(spec))).isEqualTo(expectedRendering);
+            assertThat(renderer.render(parser.parseReader(new StringReader(spec)))).isEqualTo(expectedRendering);
+
+            var blocks = new ArrayList<Node>();
+            parser.parseBlocks(new StringReader("*a*\n\n[b]\n\n[b]: /url"), blocks::add);
+            assertThat(blocks).hasSize(3);
+            assertThat(blocks.get(0).getFirstChild()).isInstanceOf(Emphasis.class);
+
+            var threads = ConcurrentHashMap.<Thread>newKeySet();
+            InlineParserFactory recordingFactory = context -> (lines, node) -> threads.add(Thread.currentThread());
+            Parser.builder().parallelInlineParsing(pool, 1).inlineParserFactory(recordingFactory).build()
+                    .parse("a\n\nb\n\nc");
+            assertThat(threads).isNotEmpty().allMatch(thread -> thread instanceof ForkJoinWorkerThread);
+
+            // Small documents are parsed on the calling thread
+            threads.clear();
+            Parser.builder().parallelInlineParsing(pool, 10).inlineParserFactory(recordingFactory).build()
+                    .parse("a\n\nb\n\nc");
+            assertThat(threads).containsExactly(Thread.currentThread());
+        } finally {
+            pool.shutdown();
+        }
+
+        assertThatThrownBy(() -> Parser.builder().parallelInlineParsing(ForkJoinPool.commonPool(), 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void stopCondition() throws IOException {
+        var parser = Parser.builder().build();
+        var renderer = HtmlRenderer.builder().build();
+        var input = "# Title\n\nFirst *paragraph*\n\n- a\n- b\n\nLast [link]\n\n[link]: /url\n";
+
+        assertThat(renderer.render(parser.parse(input, StopCondition.afterBlocks(2))))
+                .isEqualTo("<h1>Title</h1>\n<p>First <em>paragraph</em></p>\n");
+        assertThat(renderer.render(parser.parse(input, StopCondition.afterBlock(block -> block instanceof ListBlock))))
+                .isEqualTo("<h1>Title</h1>\n<p>First <em>paragraph</em></p>\n<ul>\n<li>a</li>\n<li>b</li>\n</ul>\n");
+        assertThat(renderer.render(parser.parse(input, StopCondition.afterInputIndex(10))))
+                .isEqualTo("<h1>Title</h1>\n<p>First <em>paragraph</em></p>\n");
+        // Definitions after the stop are not known
+        assertThat(renderer.render(parser.parse(input, StopCondition.afterBlocks(4))))
+                .endsWith("<p>Last [link]</p>\n");
+        assertThat(renderer.render(parser.parse(input, StopCondition.afterBlocks(100))))
+                .isEqualTo(renderer.render(parser.parse(input)));
+        // Also not when the definition was already closed when stopping, or in an open block
+        assertThat(renderer.render(parser.parse("[foo]\n\n[a]: /a\n[foo]: /url\nrest\n\nnext\n", StopCondition.afterBlocks(2))))
+                .isEqualTo("<p>[foo]</p>\n");
+        assertThat(renderer.render(parser.parse("[foo]\n\n***\n> [foo]: /url\n> rest\n", StopCondition.afterBlocks(2))))
+                .isEqualTo("<p>[foo]</p>\n<hr />\n");
+
+        var indices = new ArrayList<Integer>();
+        parser.parse(input, (block, blockIndex, inputIndex) -> {
+            indices.add(blockIndex);
+            indices.add(inputIndex);
+            return false;
+        });
+        assertThat(indices).containsExactly(0, 9, 1, 28, 2, 49, 3, 50);
+
+        // The rest of the input is not read
+        var longInput = "# Title\n\nIntro\n\n" + "More text\n".repeat(100_000);
+        var read = new int[1];
+        var reader = new FilterReader(new StringReader(longInput)) {
+            @Override
+            public int read(char[] cbuf, int off, int len) throws IOException {
+                int n = super.read(cbuf, off, len);
+                read[0] += Math.max(n, 0);
+                return n;
+            }
+        };
+        var document = parser.parseReader(reader, StopCondition.afterBlocks(2));
+        assertThat(renderer.render(document)).isEqualTo("<h1>Title</h1>\n<p>Intro</p>\n");
+        assertThat(read[0]).isLessThan(longInput.length() / 10);
+    }
+
+    @Test
+    public void inlineParsingDisabled() {
+        var parser = Parser.builder()
+                .inlineParsing(false)
+                .includeSourceSpans(IncludeSourceSpans.BLOCKS_AND_INLINES)
+                .build();
+        var document = parser.parse("# *Title*\n\nSome [link] and\n`code`\n\n[link]: /url\n");
+
+        var heading = document.getFirstChild();
+        assertThat(heading).isInstanceOf(Heading.class);
+        assertThat(((Text) heading.getFirstChild()).getLiteral()).isEqualTo("*Title*");
+        assertThat(heading.getFirstChild().getNext()).isNull();
+
+        var paragraph = heading.getNext();
+        var text = (Text) paragraph.getFirstChild();
+        assertThat(text.getLiteral()).isEqualTo("Some [link] and\n`code`");
+        assertThat(text.getNext()).isNull();
+        assertThat(text.getSourceSpans()).isEqualTo(paragraph.getSourceSpans());
+
+        assertThat(paragraph.getNext()).isInstanceOf(LinkReferenceDefinition.class);
+    }
+
+    @Test
+    public void lazyInlineParsing() throws Exception {
+        var spec = TestResources.readAsString(TestResources.getSpec());
+        var renderer = HtmlRenderer.builder().build();
+        var expectedRendering = renderer.render(Parser.builder().build().parse(spec));
+
+        var parser = Parser.builder().lazyInlineParsing(true).build();
+        assertThat(renderer.render(parser.parse(spec))).isEqualTo(expectedRendering);
+
+        // Definitions after the reference are known when the paragraph is accessed
+        var document = parser.parse("[foo]\n\n[foo]: /url");
+        assertThat(document.getFirstChild().getFirstChild()).isInstanceOf(Link.class);
+
+        var parsed = new ArrayList<String>();
+        InlineParserFactory recordingFactory = context -> (lines, node) -> {
+            parsed.add(lines.getContent());
+            node.appendChild(new Text(lines.getContent()));
+        };
+        var recordingParser = Parser.builder().lazyInlineParsing(true).inlineParserFactory(recordingFactory).build();
+        document = recordingParser.parse("# a\n\nb\n\nc");
+        assertThat(parsed).isEmpty();
+        assertThat(document.getFirstChild().getNext().getLastChild()).isInstanceOf(Text.class);
+        assertThat(parsed).containsExactly("b");
+        // Only parsed once
+        assertThat(firstText(document.getFirstChild().getNext())).isEqualTo("b");
+        assertThat(parsed).containsExactly("b");
+
+        // Pending parsing moves with the block, and children added before access stay after the inlines
+        document = parser.parse("*a*\n\nb");
+        var moved = document.getFirstChild();
+        var other = new Document();
+        other.appendChild(moved);
+        moved.appendChild(new Text("c"));
+        assertThat(moved.getFirstChild()).isInstanceOf(Emphasis.class);
+        assertThat(moved.getFirstChild().getPrevious()).isNull();
+        assertThat(((Text) moved.getLastChild()).getLiteral()).isEqualTo("c");
+        assertThat(moved.getLastChild().getPrevious()).isSameAs(moved.getFirstChild());
+        assertThat(document.getFirstChild().getFirstChild()).isInstanceOf(Text.class);
+
+        var sharedDocument = parser.parse(spec);
+        var executorService = Executors.newFixedThreadPool(4);
+        try {
+            var futures = new ArrayList<Future<String>>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(executorService.submit(() -> renderer.render(sharedDocument)));
+            }
+            for (var future : futures) {
+                assertThat(future.get()).isEqualTo(expectedRendering);
+            }
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void lazyTextLiterals() throws IOException {
+        var spec = TestResources.readAsString(TestResources.getSpec());
+        var renderer = HtmlRenderer.builder().build();
+        var expectedRendering = renderer.render(Parser.builder().build().parse(spec));
+
+        var parser = Parser.builder().lazyTextLiterals(true).build();
+        assertThat(renderer.render(parser.parse(spec))).isEqualTo(expectedRendering);
+        assertThat(renderer.render(parser.parseReader(new StringReader(spec)))).isEqualTo(expectedRendering);
+        assertThat(renderer.render(parser.parseUtf8(spec.getBytes(StandardCharsets.UTF_8)))).isEqualTo(expectedRendering);
+
+        // Unmatched delimiters are merged into the adjacent text without copying
+        var document = parser.parse("foo_bar * baz\n");
+        var text = (Text) document.getFirstChild().getFirstChild();
+        assertThat(text.getNext()).isNull();
+        assertThat(text.getLiteralSequence()).isNotInstanceOf(String.class);
+        assertThat(text.getLiteral()).isEqualTo("foo_bar * baz");
+        // Getting the String doesn't replace the view
+        assertThat(text.getLiteralSequence()).isNotInstanceOf(String.class);
+    }
+
+    @Test
+    public void definitions() throws IOException {
+        var glossary = new DefinitionMap<>(LinkReferenceDefinition.class);
+        glossary.putIfAbsent("Term", new LinkReferenceDefinition("Term", "/term", "Title"));
+        var parser = Parser.builder().definitions(glossary).build();
+        var renderer = HtmlRenderer.builder().build();
+
+        assertThat(renderer.render(parser.parse("[term] and [other]")))
+                .isEqualTo("<p><a href=\"/term\" title=\"Title\">term</a> and [other]</p>\n");
+        assertThat(renderer.render(parser.parseReader(new StringReader("[TERM][]"))))
+                .isEqualTo("<p><a href=\"/term\" title=\"Title\">TERM</a></p>\n");
+
+        // Definitions in the document take precedence
+        assertThat(renderer.render(parser.parse("[term]\n\n[term]: /doc")))
+                .isEqualTo("<p><a href=\"/doc\">term</a></p>\n");
+
+        // Changes after building the parser have no effect
+        glossary.putIfAbsent("other", new LinkReferenceDefinition("other", "/other", null));
+        assertThat(renderer.render(parser.parse("[other]"))).isEqualTo("<p>[other]</p>\n");
+    }
+
     private String firstText(Node n) {
         while (!(n instanceof Text)) {
             assertThat(n).isNotNull();
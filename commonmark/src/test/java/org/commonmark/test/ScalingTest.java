@@ -0,0 +1,93 @@
+package org.commonmark.test;
+
+import org.commonmark.parser.Parser;
+import org.commonmark.renderer.html.HtmlRenderer;
+import org.commonmark.testutil.ScalingTestCase;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Check that time grows linearly with the size of adversarial inputs, see {@link PathologicalTest} for correctness.
+ */
+public class ScalingTest extends ScalingTestCase {
+
+    public ScalingTest() {
+        super(Parser.builder().build()::parse, HtmlRenderer.builder().build()::render);
+    }
+
+    @Test
+    public void nestedEmphasis() {
+        // Nesting depth is limited by the stack size because the renderer is recursive, so repeat nested runs instead
+        assertLinearScaling(n -> ("*a **a ".repeat(20) + "b" + " a** a*".repeat(20) + " ").repeat(n));
+    }
+
+    @Test
+    public void emphasisWithoutClosers() {
+        assertLinearScaling(n -> "*a **a _b __b ".repeat(n));
+    }
+
+    @Test
+    public void mismatchedOpenersAndClosers() {
+        assertLinearScaling(n -> "*a_ ".repeat(n));
+    }
+
+    @Test
+    public void bracketStorm() {
+        assertLinearScaling(n -> "[a ] [ a_ a] ![ [](".repeat(n));
+    }
+
+    @Test
+    public void linksAfterOpeners() {
+        assertLinearScaling(n -> "[a ".repeat(n) + "[b](/c) ".repeat(n));
+    }
+
+    @Test
+    public void linksAfterDelimiters() {
+        assertLinearScaling(n -> "_a ".repeat(n) + "[b](/c) ![d](/e) ".repeat(n));
+    }
+
+    @Test
+    public void nestedBrackets() {
+        assertLinearScaling(n -> "[".repeat(n) + "a" + "]".repeat(n));
+    }
+
+    @Test
+    public void backticks() {
+        assertLinearScaling(n -> "`a ``b ```c ".repeat(n));
+    }
+
+    @Test
+    public void deepBlockQuotes() {
+        assertLinearScaling(n -> "> ".repeat(n) + "a\n", 2000);
+    }
+
+    @Test
+    public void blockQuoteLines() {
+        assertLinearScaling(n -> ("> ".repeat(50) + "a\n").repeat(n));
+    }
+
+    @Test
+    public void nestedLists() {
+        assertLinearScaling(n -> IntStream.range(0, n).mapToObj(i -> "  ".repeat(i % 50) + "- a\n")
+                .collect(Collectors.joining()));
+    }
+
+    @Test
+    public void manyLinkReferenceDefinitions() {
+        assertLinearScaling(n -> IntStream.range(0, n).mapToObj(i -> "[a" + i + "]: /url" + i + "\n")
+                .collect(Collectors.joining()) + "\n" +
+                IntStream.range(0, n).mapToObj(i -> "[a" + i + "] ").collect(Collectors.joining()));
+    }
+
+    @Test
+    public void autolinks() {
+        assertLinearScaling(n -> "<http://example.com/a> <a@example.com> <http:// ".repeat(n));
+    }
+
+    @Test
+    public void htmlTags() {
+        assertLinearScaling(n -> "<a href=\"b\"> <!-- c --> <? <![CDATA[ ".repeat(n));
+    }
+}
@@ -1,8 +1,12 @@
 package org.commonmark.test;
 
+import org.commonmark.node.Paragraph;
 import org.commonmark.node.SourceSpan;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
@@ -36,6 +40,30 @@ public class SourceSpanTest {
         assertThat(span.subSpan(2, 3)).isEqualTo(SourceSpan.of(1, 4, 5, 1));
     }
 
+    @Test
+    public void testNodeSourceSpans() {
+        var node = new Paragraph();
+        assertThat(node.getSourceSpans()).isEmpty();
+
+        var spans = new ArrayList<SourceSpan>();
+        for (int i = 0; i < 10; i++) {
+            var span = SourceSpan.of(i, i + 1, i * 10, i + 2);
+            node.addSourceSpan(span);
+            spans.add(span);
+        }
+        assertThat(node.getSourceSpans()).isEqualTo(spans);
+        assertThatThrownBy(() -> node.getSourceSpans().add(SourceSpan.of(0, 0, 0, 0)))
+                .isInstanceOf(UnsupportedOperationException.class);
+
+        node.setSourceSpans(List.of(SourceSpan.of(1, 2, 3, 4)));
+        assertThat(node.getSourceSpans()).containsExactly(SourceSpan.of(1, 2, 3, 4));
+        node.addSourceSpan(SourceSpan.of(2, 0, 8, 1));
+        assertThat(node.getSourceSpans()).containsExactly(SourceSpan.of(1, 2, 3, 4), SourceSpan.of(2, 0, 8, 1));
+
+        node.setSourceSpans(List.of());
+        assertThat(node.getSourceSpans()).isEmpty();
+    }
+
     @Test
     public void testSubSpanBeginIndexNegative() {
         var sourceSpan = SourceSpan.of(1, 2, 3, 5);
@@ -379,6 +379,22 @@ public class SourceSpansTest {
         assertInlineSpans(input, Emphasis.class, SourceSpan.of(5, 2, 22, 4));
     }
 
+    @Test
+    public void indexedAccess() {
+        Node paragraph = PARSER.parse("foo\nbar\n").getFirstChild();
+        assertThat(paragraph.getSourceSpanCount()).isEqualTo(2);
+        assertThat(paragraph.getSourceSpan(0)).isEqualTo(SourceSpan.of(0, 0, 0, 3));
+        assertThat(paragraph.getSourceSpan(1)).isEqualTo(SourceSpan.of(1, 0, 4, 3));
+
+        // The list is not kept by the node
+        List<SourceSpan> sourceSpans = paragraph.getSourceSpans();
+        assertThat(paragraph.getSourceSpans()).isEqualTo(sourceSpans).isNotSameAs(sourceSpans);
+        paragraph.addSourceSpan(SourceSpan.of(2, 0, 8, 3));
+        paragraph.addSourceSpan(null);
+        assertThat(paragraph.getSourceSpans()).hasSize(3);
+        assertThat(paragraph.getSourceSpan(2)).isEqualTo(SourceSpan.of(2, 0, 8, 3));
+    }
+
     private void assertVisualize(String source, String expected) {
         var doc = PARSER.parse(source);
         assertThat(SourceSpanRenderer.renderWithLineColumn(doc, source)).isEqualTo(expected);
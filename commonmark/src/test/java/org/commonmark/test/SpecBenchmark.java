@@ -25,6 +25,7 @@ public class SpecBenchmark {
     private static final HtmlRenderer RENDERER = HtmlRenderer.builder().build();
 
     private static final Node SPEC_NODE = PARSER.parse(SPEC);
+    private static final String PROSE = prose();
 
     public static void main(String[] args) throws Exception {
         Options options = new OptionsBuilder()
@@ -54,6 +55,11 @@ public class SpecBenchmark {
         return parseAndRender(SPEC_EXAMPLES);
     }
 
+    @Benchmark
+    public long parseProse() {
+        return parse(List.of(PROSE));
+    }
+
     @Benchmark
     public long renderWholeSpec() {
         return RENDERER.render(SPEC_NODE).length();
@@ -76,4 +82,25 @@ public class SpecBenchmark {
         }
         return length;
     }
+
+    /**
+     * Paragraphs of mostly plain text, where inline parsing is dominated by scanning for special characters.
+     */
+    private static String prose() {
+        String[] words = {"the", "parser", "reads", "long", "runs", "of", "plain", "text,", "with", "only", "a", "few",
+                "*emphasized*", "words."};
+        StringBuilder sb = new StringBuilder();
+        int word = 0;
+        for (int paragraph = 0; paragraph < 500; paragraph++) {
+            for (int line = 0; line < 5; line++) {
+                for (int i = 0; i < 15; i++) {
+                    sb.append(words[word]).append(' ');
+                    word = (word + 5) % words.length;
+                }
+                sb.append('\n');
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
 }